@@ -1,12 +1,16 @@
 package com.aynlabs.lumoBills;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 import com.vaadin.flow.theme.lumo.Lumo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Push
 @Theme(value = "lumoBills", variant = Lumo.DARK)
 public class LumoBillsApplication implements AppShellConfigurator {
 
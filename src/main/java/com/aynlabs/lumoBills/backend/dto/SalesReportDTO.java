@@ -2,11 +2,13 @@ package com.aynlabs.lumoBills.backend.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor // constructor expression in the streaming report queries
 public class SalesReportDTO {
     private String invoiceId;
     private LocalDateTime date;
@@ -2,11 +2,13 @@ package com.aynlabs.lumoBills.backend.dto;
 
 import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor // constructor expression in the streaming report queries
 public class StockReportDTO {
     private LocalDateTime date;
     private String productName;
@@ -1,5 +1,6 @@
 package com.aynlabs.lumoBills.backend.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
@@ -23,6 +24,8 @@ public class Customer extends AbstractEntity {
 
     private String address;
 
+    // Changed only through CustomerService.postBalance, never by saving the entity
+    @Column(updatable = false)
     private java.math.BigDecimal outstandingBalance = java.math.BigDecimal.ZERO;
 
     private String city;
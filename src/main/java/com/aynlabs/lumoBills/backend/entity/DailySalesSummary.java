@@ -0,0 +1,35 @@
+package com.aynlabs.lumoBills.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per-day totals for the dashboard, kept up to date incrementally by
+ * DailySummaryService. Sales figures count PAID invoices on their invoice date.
+ */
+@Entity
+@Getter
+@Setter
+public class DailySalesSummary extends AbstractEntity {
+
+    @Column(unique = true, nullable = false)
+    private LocalDate summaryDate;
+
+    private long invoiceCount; // all invoices except cancelled ones
+
+    private long paidCount;
+
+    private BigDecimal paidSales = BigDecimal.ZERO;
+
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    private long purchaseCount;
+
+    private BigDecimal purchaseTotal = BigDecimal.ZERO;
+}
@@ -6,6 +6,10 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,11 +19,20 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@NamedEntityGraphs({
+        // Dialog, PDF and cancel/payment: everything shown on the printed invoice
+        @NamedEntityGraph(name = "Invoice.detail", attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode(value = "items", subgraph = "items") },
+                subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product"))),
+        // Grids and sales report: one row per invoice with the customer name
+        @NamedEntityGraph(name = "Invoice.listRow", attributeNodes = @NamedAttributeNode("customer"))
+})
 @Getter
 @Setter
 public class Invoice extends AbstractEntity {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
     private LocalDateTime date;
@@ -43,7 +56,7 @@ public class Invoice extends AbstractEntity {
     @Enumerated(EnumType.STRING)
     private PaymentMode paymentMode;
 
-    @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<InvoiceItem> items = new ArrayList<>();
 
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -52,7 +65,7 @@ public class Invoice extends AbstractEntity {
     private BigDecimal amountPaid = BigDecimal.ZERO;
     private BigDecimal amountPending = BigDecimal.ZERO;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User createdBy;
 
     public enum InvoiceStatus {
@@ -1,6 +1,7 @@
 package com.aynlabs.lumoBills.backend.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
 import java.math.BigDecimal;
 import lombok.Getter;
@@ -11,10 +12,10 @@ import lombok.Setter;
 @Setter
 public class InvoiceItem extends AbstractEntity {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Invoice invoice;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
 
     private Integer quantity;
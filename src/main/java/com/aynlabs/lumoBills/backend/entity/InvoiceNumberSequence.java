@@ -0,0 +1,19 @@
+package com.aynlabs.lumoBills.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+public class InvoiceNumberSequence extends AbstractEntity {
+
+    @NotEmpty
+    @Column(unique = true)
+    private String sequenceKey; // prefix + reset period, e.g. "INV-20240131"
+
+    private long nextValue = 1;
+}
@@ -0,0 +1,29 @@
+package com.aynlabs.lumoBills.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running totals per invoice status, kept up to date by InvoiceTotalsService
+ * in the same transaction as the invoice change.
+ */
+@Entity
+@Getter
+@Setter
+public class InvoiceStatusTotal extends AbstractEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(unique = true, nullable = false)
+    private Invoice.InvoiceStatus status;
+
+    private long invoiceCount;
+
+    private BigDecimal amountPending = BigDecimal.ZERO;
+
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
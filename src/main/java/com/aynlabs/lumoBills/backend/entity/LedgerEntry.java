@@ -1,6 +1,8 @@
 package com.aynlabs.lumoBills.backend.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
@@ -11,6 +13,7 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
+@Table(indexes = @Index(name = "idx_ledger_entry_date", columnList = "transactionDate"))
 public class LedgerEntry extends AbstractEntity {
 
     public enum EntryType {
@@ -0,0 +1,24 @@
+package com.aynlabs.lumoBills.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A ledger month. Once closedAt is set its totals are in LedgerPeriodTotal;
+ * an open month is summed from the ledger entries themselves. Closing and
+ * reopening both lock this row, so they never interleave.
+ */
+@Entity
+@Getter
+@Setter
+public class LedgerPeriod extends AbstractEntity {
+
+    @Column(unique = true, nullable = false)
+    private LocalDate periodStart; // first day of the month
+
+    private LocalDateTime closedAt; // null while the month is open
+}
@@ -0,0 +1,37 @@
+package com.aynlabs.lumoBills.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Closing total of one ledger month for one type, category and payment mode.
+ */
+@Entity
+@Getter
+@Setter
+@Table(indexes = @Index(name = "idx_ledger_period_total_start", columnList = "periodStart"))
+public class LedgerPeriodTotal extends AbstractEntity {
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    private LedgerEntry.EntryType type;
+
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    private Invoice.PaymentMode paymentMode;
+
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    private long entryCount;
+}
@@ -0,0 +1,54 @@
+package com.aynlabs.lumoBills.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A side effect recorded in the same transaction as the business change and
+ * applied later by the OutboxDispatcher.
+ */
+@Entity
+@Getter
+@Setter
+@Table(indexes = {
+        @Index(name = "idx_outbox_status", columnList = "status, id"),
+        @Index(name = "idx_outbox_key", columnList = "aggregateKey, status") })
+public class OutboxEvent extends AbstractEntity {
+
+    private String aggregateKey; // events with the same key are applied in id order
+
+    @Enumerated(EnumType.STRING)
+    private EventType eventType;
+
+    @Column(length = 4000)
+    private String payload; // JSON
+
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime availableAt; // not retried before this time
+
+    private LocalDateTime processedAt;
+
+    public enum EventType {
+        LEDGER_ENTRY, CUSTOMER_BALANCE, DAILY_SUMMARY, INVOICE_TOTALS
+    }
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+}
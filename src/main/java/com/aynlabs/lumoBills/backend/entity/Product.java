@@ -1,6 +1,8 @@
 package com.aynlabs.lumoBills.backend.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.validation.constraints.NotEmpty;
@@ -17,7 +19,11 @@ public class Product extends AbstractEntity {
     @NotEmpty
     private String name;
 
-    @ManyToOne
+    // Barcode or SKU, scanned at the till
+    @Column(unique = true)
+    private String code;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     @NotNull
     private Category category;
@@ -13,7 +13,7 @@ import lombok.Setter;
 @Setter
 public class Purchase extends AbstractEntity {
 
-    @jakarta.persistence.ManyToOne
+    @jakarta.persistence.ManyToOne(fetch = jakarta.persistence.FetchType.LAZY)
     @jakarta.persistence.JoinColumn(name = "product_id")
     @NotNull
     private Product product;
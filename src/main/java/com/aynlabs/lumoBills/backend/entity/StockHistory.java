@@ -3,17 +3,22 @@ package com.aynlabs.lumoBills.backend.entity;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@NamedEntityGraph(name = "StockHistory.report", attributeNodes = {
+        @NamedAttributeNode("product"), @NamedAttributeNode("conductedBy") })
 @Getter
 @Setter
 public class StockHistory extends AbstractEntity {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
 
     private Integer changeAmount; // Positive for add, negative for remove
@@ -27,7 +32,7 @@ public class StockHistory extends AbstractEntity {
 
     private LocalDateTime timestamp;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User conductedBy;
 
     private String notes;
@@ -5,7 +5,6 @@ import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.Table;
 import java.util.Set;
 import lombok.Getter;
@@ -24,12 +23,12 @@ public class User extends AbstractEntity {
     private String hashedPassword;
 
     @Enumerated(EnumType.STRING)
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
     private Set<Role> roles;
 
     private boolean active = true;
 
     // For page-based access control, we might add specific permissions later
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
     private Set<String> accessibleViews;
 }
@@ -0,0 +1,95 @@
+package com.aynlabs.lumoBills.backend.event;
+
+import com.aynlabs.lumoBills.backend.service.DailySummaryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Collects committed domain events and hands them to open dashboards in
+ * batches. Events arriving within one push interval are merged (the latest
+ * version of each day's totals wins), so a burst of invoices causes a single
+ * UI update.
+ */
+@Component
+public class DashboardBroadcaster {
+
+    private final Set<Consumer<DashboardUpdate>> listeners = ConcurrentHashMap.newKeySet();
+    private final Map<LocalDate, DailySummaryService.DayTotals> pendingTotals = new HashMap<>();
+    private final List<StockChangedEvent.StockMovement> pendingMovements = new ArrayList<>();
+
+    @Value("${lumobills.dashboard.push-interval-ms:1000}")
+    private long pushIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Registers a listener, called from a background thread. Run the returned
+     * handle to unregister.
+     */
+    public Runnable register(Consumer<DashboardUpdate> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSalesTotalsChanged(SalesTotalsChangedEvent event) {
+        pendingTotals.merge(event.date(), event.totals(), (a, b) -> b.version() > a.version() ? b : a);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStockChanged(StockChangedEvent event) {
+        pendingMovements.addAll(event.movements());
+    }
+
+    void flush() {
+        DashboardUpdate update;
+        synchronized (this) {
+            if (pendingTotals.isEmpty() && pendingMovements.isEmpty()) {
+                return;
+            }
+            update = new DashboardUpdate(Map.copyOf(pendingTotals), List.copyOf(pendingMovements));
+            pendingTotals.clear();
+            pendingMovements.clear();
+        }
+        for (Consumer<DashboardUpdate> listener : listeners) {
+            try {
+                listener.accept(update);
+            } catch (Exception e) {
+                System.err.println("Dashboard push failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, pushIntervalMs, pushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public record DashboardUpdate(Map<LocalDate, DailySummaryService.DayTotals> totals,
+            List<StockChangedEvent.StockMovement> movements) {
+    }
+}
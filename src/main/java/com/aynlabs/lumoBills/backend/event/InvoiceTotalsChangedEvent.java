@@ -0,0 +1,10 @@
+package com.aynlabs.lumoBills.backend.event;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+
+/**
+ * Published when a delta has been added to the running totals of an invoice
+ * status, after the outbox dispatcher applied it.
+ */
+public record InvoiceTotalsChangedEvent(Invoice.InvoiceStatus status) {
+}
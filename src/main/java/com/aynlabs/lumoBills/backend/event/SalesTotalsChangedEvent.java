@@ -0,0 +1,11 @@
+package com.aynlabs.lumoBills.backend.event;
+
+import com.aynlabs.lumoBills.backend.service.DailySummaryService;
+import java.time.LocalDate;
+
+/**
+ * Published when a delta has been added to a day's row of the daily summary,
+ * after the outbox dispatcher applied it. Carries the row's new totals.
+ */
+public record SalesTotalsChangedEvent(LocalDate date, DailySummaryService.DayTotals totals) {
+}
@@ -0,0 +1,16 @@
+package com.aynlabs.lumoBills.backend.event;
+
+import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when stock of one or more products changes, one movement per
+ * stock history row written.
+ */
+public record StockChangedEvent(List<StockMovement> movements) {
+
+    public record StockMovement(Long productId, String productName, int changeAmount, TransactionType type,
+            LocalDateTime timestamp) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.aynlabs.lumoBills.backend.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes rows to an .xlsx stream with a streaming workbook: only the last
+ * {@code lumobills.reports.excel-row-window} rows are kept in memory, the rest
+ * are flushed to a temporary file and copied to the output at the end.
+ */
+@Component
+public class ExcelExporter {
+
+    @Value("${lumobills.reports.excel-row-window:200}")
+    private int rowWindow;
+
+    public <T> void write(String sheetName, List<ExportColumn<T>> columns, Iterable<T> rows, OutputStream out)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet(sheetName);
+
+            // Styles are created once per workbook and shared by every cell
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            CellStyle headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+            CellStyle integerStyle = workbook.createCellStyle();
+            integerStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+            CellStyle decimalStyle = workbook.createCellStyle();
+            decimalStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < columns.size(); i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(columns.get(i).header());
+                cell.setCellStyle(headerStyle);
+            }
+
+            int rowIdx = 1;
+            for (T item : rows) {
+                Row row = sheet.createRow(rowIdx++);
+                for (int i = 0; i < columns.size(); i++) {
+                    ExportColumn<T> column = columns.get(i);
+                    Object value = column.accessor().apply(item);
+                    if (value == null) {
+                        continue;
+                    }
+                    Cell cell = row.createCell(i);
+                    switch (column.kind()) {
+                        case NUMBER -> {
+                            cell.setCellValue(((Number) value).doubleValue());
+                            cell.setCellStyle(value instanceof Integer || value instanceof Long ? integerStyle
+                                    : decimalStyle);
+                        }
+                        case DATE_TIME -> {
+                            cell.setCellValue((LocalDateTime) value);
+                            cell.setCellStyle(dateStyle);
+                        }
+                        default -> cell.setCellValue(value.toString());
+                    }
+                }
+            }
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
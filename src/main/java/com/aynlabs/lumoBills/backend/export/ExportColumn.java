@@ -0,0 +1,27 @@
+package com.aynlabs.lumoBills.backend.export;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * One column of a tabular export: a header and a typed accessor, so rows are
+ * read with plain getter calls and each cell is written with its real type.
+ */
+public record ExportColumn<T>(String header, Kind kind, Function<T, ?> accessor) {
+
+    public enum Kind {
+        TEXT, NUMBER, DATE_TIME
+    }
+
+    public static <T> ExportColumn<T> text(String header, Function<T, ?> accessor) {
+        return new ExportColumn<>(header, Kind.TEXT, accessor);
+    }
+
+    public static <T> ExportColumn<T> number(String header, Function<T, ? extends Number> accessor) {
+        return new ExportColumn<>(header, Kind.NUMBER, accessor);
+    }
+
+    public static <T> ExportColumn<T> dateTime(String header, Function<T, LocalDateTime> accessor) {
+        return new ExportColumn<>(header, Kind.DATE_TIME, accessor);
+    }
+}
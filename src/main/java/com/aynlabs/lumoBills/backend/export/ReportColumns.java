@@ -0,0 +1,58 @@
+package com.aynlabs.lumoBills.backend.export;
+
+import com.aynlabs.lumoBills.backend.dto.ProductProfitDTO;
+import com.aynlabs.lumoBills.backend.dto.SalesReportDTO;
+import com.aynlabs.lumoBills.backend.dto.StockReportDTO;
+import com.aynlabs.lumoBills.backend.entity.Purchase;
+import java.util.List;
+
+/**
+ * Export columns of the reports, shared by the Excel, CSV and NDJSON exports.
+ */
+public final class ReportColumns {
+
+    public static final List<ExportColumn<SalesReportDTO>> SALES = List.of(
+            ExportColumn.text("Invoice ID", SalesReportDTO::getInvoiceId),
+            ExportColumn.dateTime("Date", SalesReportDTO::getDate),
+            ExportColumn.text("Customer", SalesReportDTO::getCustomerName),
+            ExportColumn.number("Subtotal", SalesReportDTO::getSubTotal),
+            ExportColumn.number("Tax", SalesReportDTO::getTaxAmount),
+            ExportColumn.number("Discount", SalesReportDTO::getDiscountAmount),
+            ExportColumn.number("Total", SalesReportDTO::getTotalAmount));
+
+    public static final List<ExportColumn<StockReportDTO>> STOCK_HISTORY = List.of(
+            ExportColumn.dateTime("Date", StockReportDTO::getDate),
+            ExportColumn.text("Product", StockReportDTO::getProductName),
+            ExportColumn.text("Type", StockReportDTO::getType),
+            ExportColumn.number("Change", StockReportDTO::getChangeAmount),
+            ExportColumn.number("Rate", StockReportDTO::getPurchasePrice),
+            ExportColumn.number("Total Financial", StockReportDTO::getTotalAmount),
+            ExportColumn.text("Conducted By", StockReportDTO::getConductedBy),
+            ExportColumn.text("Notes", StockReportDTO::getNotes));
+
+    public static final List<ExportColumn<StockReportDTO>> STOCK_REFILL = List.of(
+            ExportColumn.dateTime("Date", StockReportDTO::getDate),
+            ExportColumn.text("Product", StockReportDTO::getProductName),
+            ExportColumn.number("Quantity", StockReportDTO::getChangeAmount),
+            ExportColumn.number("Buying Price", StockReportDTO::getPurchasePrice),
+            ExportColumn.number("Total Cost", StockReportDTO::getTotalAmount),
+            ExportColumn.text("Conducted By", StockReportDTO::getConductedBy),
+            ExportColumn.text("Notes", StockReportDTO::getNotes));
+
+    public static final List<ExportColumn<ProductProfitDTO>> PRODUCT_PROFIT = List.of(
+            ExportColumn.text("Product", ProductProfitDTO::getProductName),
+            ExportColumn.number("Buying Price", ProductProfitDTO::getBuyingPrice),
+            ExportColumn.number("Selling Price", ProductProfitDTO::getSellingPrice),
+            ExportColumn.text("Profit/Loss Status", ProductProfitDTO::getStatus));
+
+    public static final List<ExportColumn<Purchase>> PURCHASES = List.of(
+            ExportColumn.dateTime("Date", Purchase::getPurchaseDate),
+            ExportColumn.text("Item Name", p -> p.getProduct() != null ? p.getProduct().getName() : null),
+            ExportColumn.text("Seller", Purchase::getSellerName),
+            ExportColumn.number("Qty", Purchase::getQuantity),
+            ExportColumn.number("Rate", Purchase::getPrice),
+            ExportColumn.number("Total", Purchase::getTotal));
+
+    private ReportColumns() {
+    }
+}
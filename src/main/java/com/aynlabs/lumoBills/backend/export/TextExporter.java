@@ -0,0 +1,147 @@
+package com.aynlabs.lumoBills.backend.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes rows as CSV or newline-delimited JSON, one row at a time, so the
+ * memory used does not depend on the number of rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class TextExporter {
+
+    public enum Format {
+        CSV("csv", "text/csv"), NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String fileName(String baseName, boolean gzip) {
+            return baseName + "." + extension + (gzip ? ".gz" : "");
+        }
+
+        public String contentType(boolean gzip) {
+            return gzip ? "application/gzip" : contentType;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public <T> void write(Format format, List<ExportColumn<T>> columns, Iterator<T> rows, OutputStream out,
+            boolean gzip) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writeCsv(columns, rows, writer);
+        } else {
+            writeNdjson(columns, rows, writer);
+        }
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+    }
+
+    private <T> void writeCsv(List<ExportColumn<T>> columns, Iterator<T> rows, Writer writer) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(columns.get(i).header(), writer);
+        }
+        writer.write("\r\n");
+        while (rows.hasNext()) {
+            T item = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).accessor().apply(item);
+                if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeCsvValue(value.toString(), writer);
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private void writeCsvValue(String value, Writer writer) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private <T> void writeNdjson(List<ExportColumn<T>> columns, Iterator<T> rows, Writer writer)
+            throws IOException {
+        String[] keys = columns.stream().map(column -> toKey(column.header())).toArray(String[]::new);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        json.setRootValueSeparator(null);
+        while (rows.hasNext()) {
+            T item = rows.next();
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                ExportColumn<T> column = columns.get(i);
+                Object value = column.accessor().apply(item);
+                json.writeFieldName(keys[i]);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    json.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    json.writeNumber(number.longValue());
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.flush();
+            writer.write('\n');
+        }
+        json.close();
+    }
+
+    /** "Total Financial" becomes "totalFinancial", "Profit/Loss Status" becomes "profitLossStatus". */
+    private String toKey(String header) {
+        StringBuilder key = new StringBuilder();
+        boolean upper = false;
+        for (char c : header.toCharArray()) {
+            if (!Character.isLetterOrDigit(c)) {
+                upper = key.length() > 0;
+            } else if (key.length() == 0) {
+                key.append(Character.toLowerCase(c));
+            } else {
+                key.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return key.toString();
+    }
+}
@@ -1,8 +1,10 @@
 package com.aynlabs.lumoBills.backend.repository;
 
 import com.aynlabs.lumoBills.backend.entity.Customer;
+import java.math.BigDecimal;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,4 +14,13 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
            "where lower(c.firstName) like lower(concat('%', :searchTerm, '%')) " +
            "or lower(c.lastName) like lower(concat('%', :searchTerm, '%'))")
     List<Customer> search(@Param("searchTerm") String searchTerm);
+
+    /** Fields covered by the customer search index, one row per customer. */
+    @Query("select c.id, c.firstName, c.lastName, c.email, c.phone, c.city from Customer c")
+    List<Object[]> findSearchFields();
+
+    @Modifying
+    @Query("update Customer c set c.outstandingBalance = coalesce(c.outstandingBalance, 0) + :delta " +
+           "where c.id = :id")
+    int addToOutstandingBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
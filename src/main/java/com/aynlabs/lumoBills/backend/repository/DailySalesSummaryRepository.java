@@ -0,0 +1,35 @@
+package com.aynlabs.lumoBills.backend.repository;
+
+import com.aynlabs.lumoBills.backend.entity.DailySalesSummary;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DailySalesSummaryRepository extends JpaRepository<DailySalesSummary, Long> {
+
+    List<DailySalesSummary> findBySummaryDateBetweenOrderBySummaryDate(LocalDate start, LocalDate end);
+
+    /** Also bumps the row version, so readers can tell which deltas a row already includes. */
+    @Modifying
+    @Query("update DailySalesSummary s set s.version = s.version + 1, " +
+           "s.invoiceCount = s.invoiceCount + :invoiceCount, " +
+           "s.paidCount = s.paidCount + :paidCount, " +
+           "s.paidSales = s.paidSales + :paidSales, " +
+           "s.taxAmount = s.taxAmount + :taxAmount, " +
+           "s.discountAmount = s.discountAmount + :discountAmount, " +
+           "s.purchaseCount = s.purchaseCount + :purchaseCount, " +
+           "s.purchaseTotal = s.purchaseTotal + :purchaseTotal " +
+           "where s.summaryDate = :date")
+    int addDelta(@Param("date") LocalDate date, @Param("invoiceCount") long invoiceCount,
+            @Param("paidCount") long paidCount, @Param("paidSales") BigDecimal paidSales,
+            @Param("taxAmount") BigDecimal taxAmount, @Param("discountAmount") BigDecimal discountAmount,
+            @Param("purchaseCount") long purchaseCount, @Param("purchaseTotal") BigDecimal purchaseTotal);
+
+    /** Paid sales, purchase total and version of the day's row, as a scalar read that bypasses the session cache. */
+    @Query("select s.paidSales, s.purchaseTotal, s.version from DailySalesSummary s where s.summaryDate = :date")
+    List<Object[]> findTotals(@Param("date") LocalDate date);
+}
@@ -3,7 +3,12 @@ package com.aynlabs.lumoBills.backend.repository;
 import com.aynlabs.lumoBills.backend.entity.Discount;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface DiscountRepository extends JpaRepository<Discount, Long> {
     List<Discount> findByActiveTrue();
+
+    /** Row count and version sum, a change marker like SystemSettingRepository.findChangeVersion. */
+    @Query("select count(x), coalesce(sum(x.version), 0) from Discount x")
+    List<Object[]> findChangeVersion();
 }
@@ -0,0 +1,13 @@
+package com.aynlabs.lumoBills.backend.repository;
+
+import com.aynlabs.lumoBills.backend.entity.InvoiceNumberSequence;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+public interface InvoiceNumberSequenceRepository extends JpaRepository<InvoiceNumberSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<InvoiceNumberSequence> findBySequenceKey(String sequenceKey);
+}
@@ -2,9 +2,75 @@ package com.aynlabs.lumoBills.backend.repository;
 
 import com.aynlabs.lumoBills.backend.entity.Invoice;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+
+    String LIST_FILTER = "(:term is null or lower(i.invoiceNumber) like :term " +
+           "or lower(concat(c.firstName, ' ', coalesce(c.lastName, ''))) like :term) " +
+           "and (:status is null or i.status = :status) " +
+           "and (:start is null or i.date >= :start) " +
+           "and (:end is null or i.date <= :end) ";
+
+    @EntityGraph("Invoice.listRow")
     List<Invoice> findByDateBetween(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph("Invoice.detail")
+    Optional<Invoice> findDetailById(Long id);
+
+    @EntityGraph("Invoice.detail")
+    List<Invoice> findDetailByIdIn(Collection<Long> ids);
+
+    @Query("select i.id from Invoice i " +
+           "where (:start is null or i.date >= :start) " +
+           "and (:end is null or i.date <= :end) " +
+           "and (:status is null or i.status = :status) " +
+           "order by i.id")
+    List<Long> findIdsForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("status") Invoice.InvoiceStatus status);
+
+    /**
+     * Count, pending and total amount per status straight from the invoice
+     * table, used to seed and reconcile the running status totals.
+     */
+    @Query("select i.status, count(i), sum(coalesce(i.amountPending, 0)), sum(coalesce(i.totalAmount, 0)) " +
+           "from Invoice i where i.status is not null group by i.status")
+    List<Object[]> summariseByStatus();
+
+    /**
+     * Per-day totals straight from the invoice table, used to build the daily
+     * summary: date, invoices, paid invoices, paid sales, tax, discount.
+     */
+    @Query("select cast(i.date as LocalDate), count(i), " +
+           "sum(case when i.status = com.aynlabs.lumoBills.backend.entity.Invoice$InvoiceStatus.PAID then 1 else 0 end), " +
+           "sum(case when i.status = com.aynlabs.lumoBills.backend.entity.Invoice$InvoiceStatus.PAID then coalesce(i.totalAmount, 0) else 0 end), " +
+           "sum(case when i.status = com.aynlabs.lumoBills.backend.entity.Invoice$InvoiceStatus.PAID then coalesce(i.taxAmount, 0) else 0 end), " +
+           "sum(case when i.status = com.aynlabs.lumoBills.backend.entity.Invoice$InvoiceStatus.PAID then coalesce(i.discountAmount, 0) else 0 end) " +
+           "from Invoice i " +
+           "where i.date is not null and i.status <> com.aynlabs.lumoBills.backend.entity.Invoice$InvoiceStatus.CANCELLED " +
+           "group by cast(i.date as LocalDate)")
+    List<Object[]> summariseByDay();
+
+    /**
+     * Newest-first page of the invoice list. Pass the id of the last row
+     * already shown as {@code afterId} to continue from there without an
+     * offset scan.
+     */
+    @Query("select i from Invoice i left join fetch i.customer c " +
+           "where (:afterId is null or i.id < :afterId) and " + LIST_FILTER +
+           "order by i.id desc")
+    List<Invoice> findListPage(@Param("term") String term, @Param("status") Invoice.InvoiceStatus status,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("select count(i) from Invoice i left join i.customer c where " + LIST_FILTER)
+    long countList(@Param("term") String term, @Param("status") Invoice.InvoiceStatus status,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
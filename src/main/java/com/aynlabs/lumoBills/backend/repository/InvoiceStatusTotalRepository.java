@@ -0,0 +1,21 @@
+package com.aynlabs.lumoBills.backend.repository;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.InvoiceStatusTotal;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InvoiceStatusTotalRepository extends JpaRepository<InvoiceStatusTotal, Long> {
+
+    @Modifying
+    @Query("update InvoiceStatusTotal t set " +
+           "t.invoiceCount = t.invoiceCount + :invoiceCount, " +
+           "t.amountPending = t.amountPending + :amountPending, " +
+           "t.totalAmount = t.totalAmount + :totalAmount " +
+           "where t.status = :status")
+    int addDelta(@Param("status") Invoice.InvoiceStatus status, @Param("invoiceCount") long invoiceCount,
+            @Param("amountPending") BigDecimal amountPending, @Param("totalAmount") BigDecimal totalAmount);
+}
@@ -1,10 +1,25 @@
 package com.aynlabs.lumoBills.backend.repository;
 
 import com.aynlabs.lumoBills.backend.entity.LedgerEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
-    List<LedgerEntry> findByTransactionDateBetweenOrderByTransactionDateDesc(LocalDateTime start, LocalDateTime end);
+    List<LedgerEntry> findByTransactionDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    /**
+     * Amount and entry count per type, category and payment mode for entries
+     * in [from, to); either bound may be null.
+     */
+    @Query("select e.type, e.category, e.paymentMode, sum(e.amount), count(e) from LedgerEntry e " +
+           "where (:from is null or e.transactionDate >= :from) and (:to is null or e.transactionDate < :to) " +
+           "group by e.type, e.category, e.paymentMode")
+    List<Object[]> summarise(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select min(e.transactionDate) from LedgerEntry e")
+    LocalDateTime findEarliestTransactionDate();
 }
@@ -0,0 +1,25 @@
+package com.aynlabs.lumoBills.backend.repository;
+
+import com.aynlabs.lumoBills.backend.entity.LedgerPeriod;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LedgerPeriodRepository extends JpaRepository<LedgerPeriod, Long> {
+
+    /** Closed months starting in [from, to); either bound may be null. */
+    @Query("select p.periodStart from LedgerPeriod p " +
+           "where p.closedAt is not null " +
+           "and (:from is null or p.periodStart >= :from) and (:to is null or p.periodStart < :to) " +
+           "order by p.periodStart")
+    List<LocalDate> findClosedMonths(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /** The month's row, locked until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<LedgerPeriod> findByPeriodStart(LocalDate periodStart);
+}
@@ -0,0 +1,23 @@
+package com.aynlabs.lumoBills.backend.repository;
+
+import com.aynlabs.lumoBills.backend.entity.LedgerPeriodTotal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LedgerPeriodTotalRepository extends JpaRepository<LedgerPeriodTotal, Long> {
+
+    /** Same shape as LedgerEntryRepository.summarise, over closed months. */
+    @Query("select t.type, t.category, t.paymentMode, sum(t.amount), sum(t.entryCount) " +
+           "from LedgerPeriodTotal t where t.periodStart in :periodStarts " +
+           "group by t.type, t.category, t.paymentMode")
+    List<Object[]> summarise(@Param("periodStarts") Collection<LocalDate> periodStarts);
+
+    @Modifying
+    @Query("delete from LedgerPeriodTotal t where t.periodStart = :periodStart")
+    int deleteByPeriodStart(@Param("periodStart") LocalDate periodStart);
+}
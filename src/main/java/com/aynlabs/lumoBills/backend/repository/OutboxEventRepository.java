@@ -0,0 +1,54 @@
+package com.aynlabs.lumoBills.backend.repository;
+
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest pending events that are due. Events still backing off are left
+     * out, and so are the later events of their key, which must wait for them.
+     */
+    @Query("select e from OutboxEvent e " +
+           "where e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.PENDING " +
+           "and (e.availableAt is null or e.availableAt <= :now) " +
+           "and not exists (select b.id from OutboxEvent b where b.aggregateKey = e.aggregateKey " +
+           "and b.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.PENDING " +
+           "and b.availableAt > :now and b.id < e.id) " +
+           "order by e.id")
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    /**
+     * Marks a pending event as done. Only one node can win this update, so the
+     * winner applies the event in the same transaction.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.DONE, " +
+           "e.processedAt = :now " +
+           "where e.id = :id and e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Marks the pending events of one key as done without applying them, for
+     * when their effect is rebuilt from the source tables instead.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.DONE, " +
+           "e.processedAt = :now " +
+           "where e.aggregateKey = :key and e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.PENDING")
+    int discardPending(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.PENDING, " +
+           "e.attempts = 0, e.availableAt = :now " +
+           "where e.status = com.aynlabs.lumoBills.backend.entity.OutboxEvent$Status.FAILED")
+    int resetFailed(@Param("now") LocalDateTime now);
+}
@@ -1,14 +1,54 @@
 package com.aynlabs.lumoBills.backend.repository;
 
 import com.aynlabs.lumoBills.backend.entity.Product;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
+    @EntityGraph(attributePaths = "category")
     @Query("select p from Product p " +
            "where lower(p.name) like lower(concat('%', :searchTerm, '%'))")
     List<Product> search(@Param("searchTerm") String searchTerm);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    /** Products whose lower-cased name is one of the given names, which must be lower case already. */
+    @Query("select p from Product p where lower(p.name) in :names")
+    List<Product> findByLowerNameIn(@Param("names") Collection<String> names);
+
+    /** Id and name of every product, for building the search index. */
+    @Query("select p.id, p.name from Product p")
+    List<Object[]> findAllNames();
+
+    /** Id and code of every product that has one, for building the code index. */
+    @Query("select p.id, p.code from Product p where p.code is not null")
+    List<Object[]> findAllCodes();
+
+    @Query("select count(p) from Product p where p.quantityInStock <= p.reorderLevel")
+    long countLowStock();
+
+    /**
+     * Applies a stock delta in a single statement. Decrements that would take
+     * the stock below zero match no row, so the caller gets 0 back.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.quantityInStock = p.quantityInStock + :delta, p.version = p.version + 1 " +
+           "where p.id = :id and (:delta >= 0 or p.quantityInStock + :delta >= 0)")
+    int applyStockDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.buyingPrice = :price where p.id = :id")
+    int updateBuyingPrice(@Param("id") Long id, @Param("price") BigDecimal price);
 }
@@ -3,8 +3,20 @@ package com.aynlabs.lumoBills.backend.repository;
 import com.aynlabs.lumoBills.backend.entity.Purchase;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
+    @EntityGraph(attributePaths = "product")
     List<Purchase> findByPurchaseDateBetween(LocalDateTime start, LocalDateTime end);
+
+    @Override
+    @EntityGraph(attributePaths = "product")
+    List<Purchase> findAll();
+
+    /** Per-day purchase totals: date, purchases, total. */
+    @Query("select cast(p.purchaseDate as LocalDate), count(p), sum(coalesce(p.total, 0)) from Purchase p " +
+           "where p.purchaseDate is not null group by cast(p.purchaseDate as LocalDate)")
+    List<Object[]> summariseByDay();
 }
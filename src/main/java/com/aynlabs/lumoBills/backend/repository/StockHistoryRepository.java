@@ -4,12 +4,19 @@ import com.aynlabs.lumoBills.backend.entity.StockHistory;
 import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface StockHistoryRepository extends JpaRepository<StockHistory, Long> {
+    @EntityGraph("StockHistory.report")
     List<StockHistory> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
 
+    @EntityGraph("StockHistory.report")
     List<StockHistory> findByTimestampBetweenAndType(LocalDateTime start, LocalDateTime end, TransactionType type);
 
     List<StockHistory> findByType(TransactionType type);
+
+    @EntityGraph("StockHistory.report")
+    List<StockHistory> findAllByOrderByTimestampDesc(Pageable pageable);
 }
@@ -2,8 +2,19 @@ package com.aynlabs.lumoBills.backend.repository;
 
 import com.aynlabs.lumoBills.backend.entity.SystemSetting;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface SystemSettingRepository extends JpaRepository<SystemSetting, Long> {
     Optional<SystemSetting> findBySettingKey(String settingKey);
+
+    /**
+     * Row count, sum of the optimistic-lock versions and sum of the ids. Any
+     * insert, update or delete of a setting changes the triple, including a
+     * delete and an insert between two polls (ids are never reused), so it
+     * serves as a cheap change marker for the settings cache.
+     */
+    @Query("select count(s), coalesce(sum(s.version), 0), coalesce(sum(s.id), 0) from SystemSetting s")
+    List<Object[]> findChangeVersion();
 }
@@ -1,8 +1,16 @@
 package com.aynlabs.lumoBills.backend.repository;
 
 import com.aynlabs.lumoBills.backend.entity.User;
+import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @EntityGraph(attributePaths = { "roles", "accessibleViews" })
     User findByUsername(String username);
+
+    @Override
+    @EntityGraph(attributePaths = { "roles", "accessibleViews" })
+    List<User> findAll();
 }
@@ -0,0 +1,268 @@
+package com.aynlabs.lumoBills.backend.search;
+
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory token index over customer name, email, phone digits and city,
+ * shared by every session.
+ * <p>
+ * Every query word must match a token of the customer: exactly, as a prefix,
+ * with one typo, or (for longer words and phone digits) as a substring through
+ * trigrams. Better matches rank first. A query containing digits is treated as
+ * a phone number and matched on its digits alone. CustomerService keeps the
+ * index in step with saves and deletes, and it is built at startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerSearchIndex {
+
+    /** Share of a query word's trigrams a token must contain to count as a substring match. */
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.5;
+
+    /** Shortest query word that is matched with a typo or as a substring. */
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private final CustomerRepository customerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byName = new TreeSet<>(
+            Comparator.comparing(Entry::name).thenComparing(Entry::id));
+    private final TreeMap<String, Set<Long>> tokens = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = customerRepository.findSearchFields();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byName.clear();
+            tokens.clear();
+            trigrams.clear();
+            for (Object[] row : rows) {
+                add(entryOf((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                        (String) row[5]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Customer customer) {
+        Entry entry = entryOf(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                customer.getEmail(), customer.getPhone(), customer.getCity());
+        lock.writeLock().lock();
+        try {
+            remove(entries.get(customer.getId()));
+            add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            remove(entries.get(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** True when the query has no letters or digits to match on, so a search lists every customer. */
+    public static boolean isBlank(String query) {
+        return queryWords(query).isEmpty();
+    }
+
+    /** Ids of the matches, best first. An empty query lists customers by name. */
+    public List<Long> search(String query, int offset, int limit) {
+        List<String> queryWords = queryWords(query);
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            Iterator<Entry> it = queryWords.isEmpty() ? byName.iterator() : rank(queryWords).iterator();
+            for (int skipped = 0; it.hasNext() && skipped < offset; skipped++) {
+                it.next();
+            }
+            while (it.hasNext() && ids.size() < limit) {
+                ids.add(it.next().id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(String query) {
+        List<String> queryWords = queryWords(query);
+        lock.readLock().lock();
+        try {
+            return queryWords.isEmpty() ? entries.size() : rank(queryWords).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Entry> rank(List<String> queryWords) {
+        Map<Long, Double> scores = null;
+        for (String word : queryWords) {
+            Map<Long, Double> matches = match(word);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                // Every query word has to match
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+        }
+
+        Map<Long, Double> finalScores = scores;
+        List<Entry> ranked = new ArrayList<>(scores.size());
+        for (Long id : scores.keySet()) {
+            ranked.add(entries.get(id));
+        }
+        ranked.sort(Comparator.<Entry>comparingDouble(e -> finalScores.get(e.id())).reversed()
+                .thenComparing(Entry::name));
+        return ranked;
+    }
+
+    /** Best score per customer for one query word: 3 exact, 2 prefix, 1 typo, below 1 substring. */
+    private Map<Long, Double> match(String word) {
+        Map<Long, Double> best = new HashMap<>();
+        tokens.subMap(word, word + Character.MAX_VALUE).forEach((token, ids) -> {
+            double score = token.equals(word) ? 3 : 2;
+            for (Long id : ids) {
+                best.merge(id, score, Math::max);
+            }
+        });
+        if (word.length() < MIN_FUZZY_LENGTH) {
+            return best;
+        }
+
+        // One typo, in the word or in the same length prefix of a token; tokens share the first letter
+        String first = word.substring(0, 1);
+        tokens.subMap(first, first + Character.MAX_VALUE).forEach((token, ids) -> {
+            String head = token.length() > word.length() ? token.substring(0, word.length()) : token;
+            if (withinOneEdit(word, head)) {
+                for (Long id : ids) {
+                    best.merge(id, 1.0, Math::max);
+                }
+            }
+        });
+
+        Set<String> wordTrigrams = SearchText.trigramsOf(List.of(word));
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String trigram : wordTrigrams) {
+            Set<Long> ids = trigrams.get(trigram);
+            if (ids != null) {
+                for (Long id : ids) {
+                    hits.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+        hits.forEach((id, count) -> {
+            double similarity = (double) count / wordTrigrams.size();
+            if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                best.merge(id, similarity * 0.9, Math::max);
+            }
+        });
+        return best;
+    }
+
+    /** Levenshtein distance of at most one, counting a swap of neighbouring letters as one edit. */
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == la || i == lb) {
+            return true;
+        }
+        if (la == lb) {
+            return a.substring(i + 1).equals(b.substring(i + 1))
+                    || (i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                            && a.substring(i + 2).equals(b.substring(i + 2)));
+        }
+        return la > lb ? a.substring(i + 1).equals(b.substring(i)) : a.substring(i).equals(b.substring(i + 1));
+    }
+
+    private static List<String> queryWords(String query) {
+        String digits = query == null ? "" : query.replaceAll("[^0-9]", "");
+        if (digits.length() >= MIN_FUZZY_LENGTH) {
+            return List.of(digits);
+        }
+        return List.of(SearchText.words(query));
+    }
+
+    private static Entry entryOf(Long id, String firstName, String lastName, String email, String phone,
+            String city) {
+        String name = SearchText.normalize((firstName != null ? firstName : "") + " "
+                + (lastName != null ? lastName : ""));
+        Set<String> entryTokens = new HashSet<>(List.of(SearchText.words(name)));
+        entryTokens.addAll(List.of(SearchText.words(email)));
+        entryTokens.addAll(List.of(SearchText.words(city)));
+        String digits = phone != null ? phone.replaceAll("[^0-9]", "") : "";
+        if (!digits.isEmpty()) {
+            entryTokens.add(digits);
+        }
+        return new Entry(id, name, List.copyOf(entryTokens));
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id(), entry);
+        byName.add(entry);
+        for (String token : entry.tokens()) {
+            tokens.computeIfAbsent(token, t -> new HashSet<>()).add(entry.id());
+        }
+        for (String trigram : SearchText.trigramsOf(entry.tokens())) {
+            trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        entries.remove(entry.id());
+        byName.remove(entry);
+        for (String token : entry.tokens()) {
+            removePosting(tokens, token, entry.id());
+        }
+        for (String trigram : SearchText.trigramsOf(entry.tokens())) {
+            removePosting(trigrams, trigram, entry.id());
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private record Entry(Long id, String name, List<String> tokens) {
+    }
+}
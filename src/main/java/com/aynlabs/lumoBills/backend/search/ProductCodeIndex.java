@@ -0,0 +1,66 @@
+package com.aynlabs.lumoBills.backend.search;
+
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Barcode / SKU to product id map, shared by every session, so a scan resolves
+ * without a query on the code column. Built at startup and kept in step with
+ * saves and deletes by ProductService.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCodeIndex {
+
+    private final ProductRepository productRepository;
+
+    private final Map<String, Long> idsByCode = new ConcurrentHashMap<>();
+    private final Map<Long, String> codesById = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Object[]> rows = productRepository.findAllCodes();
+        idsByCode.clear();
+        codesById.clear();
+        for (Object[] row : rows) {
+            put((Long) row[0], (String) row[1]);
+        }
+    }
+
+    /** Lock free, as this is the scan path. */
+    public Long find(String code) {
+        String key = normalize(code);
+        return key != null ? idsByCode.get(key) : null;
+    }
+
+    public synchronized void put(Long id, String code) {
+        String previous = codesById.remove(id);
+        if (previous != null) {
+            idsByCode.remove(previous, id);
+        }
+        String key = normalize(code);
+        if (key != null) {
+            idsByCode.put(key, id);
+            codesById.put(id, key);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        put(id, null);
+    }
+
+    /** Trimmed code, or null when blank. Codes are matched exactly as stored. */
+    public static String normalize(String code) {
+        if (code == null || code.isBlank()) {
+            return null;
+        }
+        return code.trim();
+    }
+}
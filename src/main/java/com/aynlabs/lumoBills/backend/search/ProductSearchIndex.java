@@ -0,0 +1,270 @@
+package com.aynlabs.lumoBills.backend.search;
+
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory name index over all products, shared by every session.
+ * <p>
+ * Names are split into words; a sorted word map answers prefix lookups and a
+ * trigram map narrows substring and misspelled lookups. Results are ranked:
+ * names starting with the query first, then names containing it, then words
+ * starting with each query word, then trigram similarity. The last two are
+ * fuzzy and only suit autocomplete; filters use {@link #findContaining}.
+ * ProductService keeps the index in step with saves and deletes, and it is
+ * built at startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    /** Share of the query's trigrams a name must contain to count as a fuzzy match. */
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.5;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byName = new TreeSet<>(
+            Comparator.comparing(Entry::normalized).thenComparing(Entry::id));
+    private final TreeMap<String, Set<Long>> words = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = productRepository.findAllNames();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byName.clear();
+            words.clear();
+            trigrams.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            remove(entries.get(id));
+            add(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            remove(entries.get(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** True when the query has no letters or digits to match on, so a search lists every product. */
+    public static boolean isBlank(String query) {
+        return SearchText.normalize(query).isEmpty();
+    }
+
+    /**
+     * Ids of the best matches, best first. An empty query lists products by
+     * name.
+     */
+    public List<Long> search(String query, int offset, int limit) {
+        String normalized = SearchText.normalize(query);
+        lock.readLock().lock();
+        try {
+            if (normalized.isEmpty()) {
+                List<Long> ids = new ArrayList<>();
+                Iterator<Entry> it = byName.iterator();
+                for (int skipped = 0; it.hasNext() && skipped < offset; skipped++) {
+                    it.next();
+                }
+                while (it.hasNext() && ids.size() < limit) {
+                    ids.add(it.next().id());
+                }
+                return ids;
+            }
+
+            String[] queryWords = normalized.split(" ");
+            Map<Long, Double> scores = new HashMap<>();
+
+            // Substrings anywhere in the name, including mid-word ones the similarity cut-off misses
+            for (Entry entry : containing(normalized, queryWords)) {
+                scores.put(entry.id(), 1.0);
+            }
+
+            // Word prefixes: every product with a word starting with one of the query words
+            for (String word : queryWords) {
+                for (Set<Long> ids : words.subMap(word, word + Character.MAX_VALUE).values()) {
+                    for (Long id : ids) {
+                        scores.merge(id, 1.0, Double::sum);
+                    }
+                }
+            }
+
+            // Trigrams: substring and typo tolerant matches
+            Set<String> queryTrigrams = SearchText.trigramsOf(List.of(queryWords));
+            if (!queryTrigrams.isEmpty()) {
+                Map<Long, Integer> hits = new HashMap<>();
+                for (String trigram : queryTrigrams) {
+                    Set<Long> ids = trigrams.get(trigram);
+                    if (ids != null) {
+                        for (Long id : ids) {
+                            hits.merge(id, 1, Integer::sum);
+                        }
+                    }
+                }
+                hits.forEach((id, count) -> {
+                    double similarity = (double) count / queryTrigrams.size();
+                    if (similarity >= MIN_TRIGRAM_SIMILARITY || scores.containsKey(id)) {
+                        scores.merge(id, similarity, Double::sum);
+                    }
+                });
+            }
+
+            List<Ranked> ranked = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> {
+                Entry entry = entries.get(id);
+                double rank = score;
+                if (entry.normalized().startsWith(normalized)) {
+                    rank += 10;
+                } else if (entry.normalized().contains(normalized)) {
+                    rank += 5;
+                }
+                ranked.add(new Ranked(entry, rank));
+            });
+            ranked.sort(Comparator.comparingDouble(Ranked::rank).reversed()
+                    .thenComparing(r -> r.entry().normalized()));
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = offset; i < ranked.size() && ids.size() < limit; i++) {
+                ids.add(ranked.get(i).entry().id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every product whose name contains the query, by name. There are
+     * no fuzzy matches, so this is what filters use. An empty query matches
+     * every product.
+     */
+    public List<Long> findContaining(String query) {
+        String normalized = SearchText.normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = normalized.isEmpty() ? new ArrayList<>(byName)
+                    : containing(normalized, normalized.split(" "));
+            matches.sort(byName.comparator());
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (Entry entry : matches) {
+                ids.add(entry.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries whose name contains the normalized query. Every trigram inside a
+     * query word must occur in such a name, so only names holding all of them
+     * are checked; a query with no word of three letters checks every name.
+     */
+    private List<Entry> containing(String normalized, String[] queryWords) {
+        Set<Long> candidates = null;
+        for (String word : queryWords) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                Set<Long> ids = trigrams.get(word.substring(i, i + 3));
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                if (candidates == null) {
+                    candidates = new HashSet<>(ids);
+                } else {
+                    candidates.retainAll(ids);
+                }
+            }
+        }
+        List<Entry> matches = new ArrayList<>();
+        if (candidates == null) {
+            for (Entry entry : entries.values()) {
+                if (entry.normalized().contains(normalized)) {
+                    matches.add(entry);
+                }
+            }
+        } else {
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry.normalized().contains(normalized)) {
+                    matches.add(entry);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void add(Long id, String name) {
+        Entry entry = new Entry(id, SearchText.normalize(name));
+        entries.put(id, entry);
+        byName.add(entry);
+        String[] nameWords = entry.normalized().isEmpty() ? new String[0] : entry.normalized().split(" ");
+        for (String word : nameWords) {
+            words.computeIfAbsent(word, w -> new HashSet<>()).add(id);
+        }
+        for (String trigram : SearchText.trigramsOf(List.of(nameWords))) {
+            trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        entries.remove(entry.id());
+        byName.remove(entry);
+        String[] nameWords = entry.normalized().isEmpty() ? new String[0] : entry.normalized().split(" ");
+        for (String word : nameWords) {
+            removePosting(words, word, entry.id());
+        }
+        for (String trigram : SearchText.trigramsOf(List.of(nameWords))) {
+            removePosting(trigrams, trigram, entry.id());
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private record Entry(Long id, String normalized) {
+    }
+
+    private record Ranked(Entry entry, double rank) {
+    }
+}
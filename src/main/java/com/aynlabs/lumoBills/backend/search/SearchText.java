@@ -0,0 +1,40 @@
+package com.aynlabs.lumoBills.backend.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/** Text helpers shared by the in-memory search indexes. */
+final class SearchText {
+
+    private SearchText() {
+    }
+
+    /** Lower case, accents stripped, anything but letters and digits turned into single spaces. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /** Words of the normalized text; none for blank text. */
+    static String[] words(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /** Trigrams of each word padded with a leading and trailing space, so short words still match. */
+    static Set<String> trigramsOf(Iterable<String> words) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : words) {
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+}
@@ -2,30 +2,60 @@ package com.aynlabs.lumoBills.backend.service;
 
 import com.aynlabs.lumoBills.backend.entity.Customer;
 import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import com.aynlabs.lumoBills.backend.search.CustomerSearchIndex;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerSearchIndex searchIndex;
 
     public List<Customer> findAll() {
         return customerRepository.findAll();
     }
 
     public List<Customer> findAll(String stringFilter) {
-        if (stringFilter == null || stringFilter.isEmpty()) {
+        if (CustomerSearchIndex.isBlank(stringFilter)) {
             return customerRepository.findAll();
         } else {
-            return customerRepository.search(stringFilter);
+            return search(stringFilter, 0, Integer.MAX_VALUE);
         }
     }
 
+    /**
+     * Ranked page of customers matching the term on name, email, phone or
+     * city, from the shared search index. Only the returned page is loaded.
+     */
+    public List<Customer> search(String term, int offset, int limit) {
+        List<Long> ids = searchIndex.search(term, offset, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return customerRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(c -> rank.get(c.getId())))
+                .toList();
+    }
+
+    public int count(String term) {
+        return searchIndex.count(term);
+    }
+
     public void delete(Customer customer) {
         customerRepository.delete(customer);
+        searchIndex.remove(customer.getId());
     }
 
     public void save(Customer customer) {
@@ -33,6 +63,17 @@ public class CustomerService {
             System.err.println("Customer is null.");
             return;
         }
-        customerRepository.save(customer);
+        searchIndex.put(customerRepository.save(customer));
+    }
+
+    /**
+     * Adds a signed amount to the customer's outstanding balance in a single
+     * update, so concurrent postings neither conflict nor get lost.
+     */
+    @Transactional
+    public void postBalance(Long customerId, BigDecimal delta) {
+        if (delta.signum() != 0 && customerRepository.addToOutstandingBalance(customerId, delta) == 0) {
+            System.err.println("Balance posting for unknown customer " + customerId + " ignored.");
+        }
     }
 }
@@ -0,0 +1,169 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.DailySalesSummary;
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.event.SalesTotalsChangedEvent;
+import com.aynlabs.lumoBills.backend.repository.DailySalesSummaryRepository;
+import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
+import com.aynlabs.lumoBills.backend.repository.PurchaseRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the daily_sales_summary table the dashboard reads from.
+ * <p>
+ * Invoice and purchase writes {@link #record} a {@link Delta}, which goes
+ * through the outbox; the dispatcher adds it to the day's row with one update.
+ * This keeps the hot per-day row out of the checkout transaction. An empty
+ * table is filled from the invoice and purchase tables at startup.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySummaryService {
+
+    private final DailySalesSummaryRepository summaryRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Records a change to a day's totals from within the writing transaction.
+     * The summary row is updated later through the outbox, see {@link #apply}.
+     */
+    public void record(LocalDate date, Delta delta) {
+        outboxService.enqueueSummaryDelta(date, delta);
+    }
+
+    /**
+     * Adds a delta to the day's row. Listeners are told once this commits and
+     * get the row's new totals with its version, read back while the update
+     * still holds the row lock.
+     */
+    @Transactional
+    public void apply(LocalDate date, Delta delta) {
+        if (addDelta(date, delta) == 0) {
+            createRow(date);
+            addDelta(date, delta);
+        }
+        Object[] row = summaryRepository.findTotals(date).get(0);
+        eventPublisher.publishEvent(new SalesTotalsChangedEvent(date,
+                new DayTotals(toBigDecimal(row[0]), toBigDecimal(row[1]), ((Number) row[2]).intValue())));
+    }
+
+    public List<DailySalesSummary> findRange(LocalDate start, LocalDate end) {
+        return summaryRepository.findBySummaryDateBetweenOrderBySummaryDate(start, end);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (summaryRepository.count() > 0) {
+            return;
+        }
+        Map<LocalDate, DailySalesSummary> days = new TreeMap<>();
+        for (Object[] row : invoiceRepository.summariseByDay()) {
+            DailySalesSummary day = days.computeIfAbsent((LocalDate) row[0], this::newRow);
+            day.setInvoiceCount(((Number) row[1]).longValue());
+            day.setPaidCount(((Number) row[2]).longValue());
+            day.setPaidSales(toBigDecimal(row[3]));
+            day.setTaxAmount(toBigDecimal(row[4]));
+            day.setDiscountAmount(toBigDecimal(row[5]));
+        }
+        for (Object[] row : purchaseRepository.summariseByDay()) {
+            DailySalesSummary day = days.computeIfAbsent((LocalDate) row[0], this::newRow);
+            day.setPurchaseCount(((Number) row[1]).longValue());
+            day.setPurchaseTotal(toBigDecimal(row[2]));
+        }
+        summaryRepository.saveAll(days.values());
+        if (!days.isEmpty()) {
+            System.out.println("Built daily sales summary for " + days.size() + " days");
+        }
+    }
+
+    private int addDelta(LocalDate date, Delta delta) {
+        return summaryRepository.addDelta(date, delta.invoiceCount(), delta.paidCount(), delta.paidSales(),
+                delta.taxAmount(), delta.discountAmount(), delta.purchaseCount(), delta.purchaseTotal());
+    }
+
+    private void createRow(LocalDate date) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            tx.executeWithoutResult(status -> summaryRepository.saveAndFlush(newRow(date)));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another node, the retried update will find it
+        }
+    }
+
+    private DailySalesSummary newRow(LocalDate date) {
+        DailySalesSummary row = new DailySalesSummary();
+        row.setSummaryDate(date);
+        return row;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    /**
+     * A day's dashboard figures as of a row version. Versions only grow, so of
+     * two copies of the same day the one with the higher version is current.
+     */
+    public record DayTotals(BigDecimal paidSales, BigDecimal purchaseTotal, int version) {
+    }
+
+    /** A signed change to one day's totals. Deltas for the same day can simply be added. */
+    public record Delta(long invoiceCount, long paidCount, BigDecimal paidSales, BigDecimal taxAmount,
+            BigDecimal discountAmount, long purchaseCount, BigDecimal purchaseTotal) {
+
+        public static Delta invoice(int sign) {
+            return new Delta(sign, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0, BigDecimal.ZERO);
+        }
+
+        public static Delta paid(Invoice invoice, int sign) {
+            BigDecimal factor = BigDecimal.valueOf(sign);
+            return new Delta(0, sign, orZero(invoice.getTotalAmount()).multiply(factor),
+                    orZero(invoice.getTaxAmount()).multiply(factor),
+                    orZero(invoice.getDiscountAmount()).multiply(factor), 0, BigDecimal.ZERO);
+        }
+
+        public static Delta purchase(BigDecimal total, int sign) {
+            return new Delta(0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, sign,
+                    orZero(total).multiply(BigDecimal.valueOf(sign)));
+        }
+
+        /** Several purchases recorded together, with their combined total. */
+        public static Delta purchases(BigDecimal total, int count) {
+            return new Delta(0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, count, orZero(total));
+        }
+
+        public Delta plus(Delta other) {
+            return new Delta(invoiceCount + other.invoiceCount, paidCount + other.paidCount,
+                    paidSales.add(other.paidSales), taxAmount.add(other.taxAmount),
+                    discountAmount.add(other.discountAmount), purchaseCount + other.purchaseCount,
+                    purchaseTotal.add(other.purchaseTotal));
+        }
+
+        private static BigDecimal orZero(BigDecimal value) {
+            return value != null ? value : BigDecimal.ZERO;
+        }
+    }
+}
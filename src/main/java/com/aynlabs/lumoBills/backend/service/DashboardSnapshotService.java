@@ -0,0 +1,167 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.DailySalesSummary;
+import com.aynlabs.lumoBills.backend.event.InvoiceTotalsChangedEvent;
+import com.aynlabs.lumoBills.backend.event.SalesTotalsChangedEvent;
+import com.aynlabs.lumoBills.backend.event.StockChangedEvent;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Computes the dashboard figures once and shares them between all sessions.
+ * <p>
+ * The default range (the last month) is kept as a single snapshot, refreshed
+ * on a schedule, shortly after a sale or purchase has reached the daily
+ * summary or the invoice status totals, and after stock changes. Other ranges are computed on demand and
+ * the most recent ones are kept in a small LRU until the next write.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardSnapshotService {
+
+    private static final int RANGE_CACHE_SIZE = 16;
+
+    private final DailySummaryService dailySummaryService;
+    private final InvoiceService invoiceService;
+    private final ProductRepository productRepository;
+
+    private volatile DashboardSnapshot defaultSnapshot;
+    private volatile boolean dirty;
+
+    private final Map<Range, DashboardSnapshot> recentRanges = new LinkedHashMap<>(RANGE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Range, DashboardSnapshot> eldest) {
+            return size() > RANGE_CACHE_SIZE;
+        }
+    };
+
+    public static LocalDate defaultStart() {
+        return LocalDate.now().minusMonths(1);
+    }
+
+    public static LocalDate defaultEnd() {
+        return LocalDate.now();
+    }
+
+    public DashboardSnapshot getSnapshot(LocalDate start, LocalDate end) {
+        if (start.equals(defaultStart()) && end.equals(defaultEnd())) {
+            DashboardSnapshot snapshot = defaultSnapshot;
+            if (snapshot != null && snapshot.start().equals(start) && snapshot.end().equals(end)) {
+                return snapshot;
+            }
+            return refreshDefault();
+        }
+
+        Range range = new Range(start, end);
+        synchronized (recentRanges) {
+            DashboardSnapshot snapshot = recentRanges.get(range);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        DashboardSnapshot snapshot = compute(start, end);
+        synchronized (recentRanges) {
+            recentRanges.put(range, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the default snapshot. Concurrent callers wait for the one
+     * running computation instead of starting their own.
+     */
+    public synchronized DashboardSnapshot refreshDefault() {
+        LocalDate start = defaultStart();
+        LocalDate end = defaultEnd();
+        DashboardSnapshot current = defaultSnapshot;
+        if (current != null && !dirty && current.start().equals(start) && current.end().equals(end)) {
+            return current;
+        }
+        dirty = false;
+        defaultSnapshot = compute(start, end);
+        return defaultSnapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${lumobills.dashboard.snapshot-refresh-ms:300000}")
+    public void scheduledRefresh() {
+        dirty = true;
+        refreshDefault();
+    }
+
+    /**
+     * Writes only mark the snapshot dirty, so a burst of them is folded into
+     * one recomputation a moment later.
+     */
+    @Scheduled(fixedDelayString = "${lumobills.dashboard.snapshot-dirty-check-ms:5000}")
+    public void refreshIfDirty() {
+        if (dirty) {
+            refreshDefault();
+        }
+    }
+
+    /** Published by DailySummaryService.apply, so the summary rows already include the change. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesTotalsChanged(SalesTotalsChangedEvent event) {
+        invalidate();
+    }
+
+    /** Published by InvoiceTotalsService.apply, so the pending amount already includes the change. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceTotalsChanged(InvoiceTotalsChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        dirty = true;
+        synchronized (recentRanges) {
+            recentRanges.clear();
+        }
+    }
+
+    private DashboardSnapshot compute(LocalDate start, LocalDate end) {
+        TreeMap<LocalDate, BigDecimal> salesByDay = new TreeMap<>();
+        TreeMap<LocalDate, BigDecimal> purchaseByDay = new TreeMap<>();
+        Map<LocalDate, Integer> versionByDay = new HashMap<>();
+        for (DailySalesSummary day : dailySummaryService.findRange(start, end)) {
+            salesByDay.put(day.getSummaryDate(), day.getPaidSales());
+            purchaseByDay.put(day.getSummaryDate(), day.getPurchaseTotal());
+            versionByDay.put(day.getSummaryDate(), day.getVersion());
+        }
+        BigDecimal income = salesByDay.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal expense = purchaseByDay.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new DashboardSnapshot(start, end, income, expense, invoiceService.getPendingSalesAmount(),
+                productRepository.countLowStock(), Collections.unmodifiableSortedMap(salesByDay),
+                Collections.unmodifiableSortedMap(purchaseByDay), Collections.unmodifiableMap(versionByDay),
+                LocalDateTime.now());
+    }
+
+    public record DashboardSnapshot(LocalDate start, LocalDate end, BigDecimal income, BigDecimal expense,
+            BigDecimal pendingAmount, long lowStockCount, SortedMap<LocalDate, BigDecimal> salesByDay,
+            SortedMap<LocalDate, BigDecimal> purchaseByDay, Map<LocalDate, Integer> versionByDay,
+            LocalDateTime computedAt) {
+
+        public BigDecimal profit() {
+            return income.subtract(expense);
+        }
+    }
+
+    private record Range(LocalDate start, LocalDate end) {
+    }
+}
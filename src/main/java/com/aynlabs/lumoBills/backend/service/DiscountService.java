@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class DiscountService {
     private final DiscountRepository repository;
+    private final PricingEngine pricingEngine;
 
     public List<Discount> findAll() {
         return repository.findAll();
@@ -21,9 +22,11 @@ public class DiscountService {
 
     public void save(Discount discount) {
         repository.save(discount);
+        pricingEngine.refresh();
     }
 
     public void delete(Discount discount) {
         repository.delete(discount);
+        pricingEngine.refresh();
     }
 }
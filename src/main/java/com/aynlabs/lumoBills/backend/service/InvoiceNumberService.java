@@ -0,0 +1,97 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.InvoiceNumberSequence;
+import com.aynlabs.lumoBills.backend.repository.InvoiceNumberSequenceRepository;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out invoice numbers from blocks reserved in the database.
+ * <p>
+ * Each node reserves {@code block-size} numbers at a time by bumping the
+ * counter row of the current prefix/period under a row lock, in its own
+ * transaction. Numbers are then handed out from memory, so the common case
+ * costs no database round trip. Numbers left in a block when the node stops,
+ * or used by a rolled back invoice, are skipped: the sequence has gaps but
+ * never duplicates, even with several app instances.
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceNumberService {
+
+    private final InvoiceNumberSequenceRepository repository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${lumobills.invoice.number-prefix:INV}")
+    private String prefix;
+
+    @Value("${lumobills.invoice.number-reset:DAILY}")
+    private ResetPeriod resetPeriod;
+
+    @Value("${lumobills.invoice.number-block-size:50}")
+    private int blockSize;
+
+    private String currentKey;
+    private long nextValue;
+    private long blockEnd;
+
+    public synchronized String nextInvoiceNumber() {
+        String period = resetPeriod.format(LocalDate.now());
+        String key = period.isEmpty() ? prefix : prefix + "-" + period;
+
+        if (!key.equals(currentKey) || nextValue >= blockEnd) {
+            reserveBlock(key);
+        }
+        return key + "-" + String.format("%06d", nextValue++);
+    }
+
+    private void reserveBlock(String key) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Long start;
+        try {
+            start = tx.execute(status -> allocate(key));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the counter row for this period first
+            start = tx.execute(status -> allocate(key));
+        }
+
+        currentKey = key;
+        nextValue = start;
+        blockEnd = start + blockSize;
+    }
+
+    private long allocate(String key) {
+        InvoiceNumberSequence sequence = repository.findBySequenceKey(key).orElseGet(() -> {
+            InvoiceNumberSequence created = new InvoiceNumberSequence();
+            created.setSequenceKey(key);
+            return created;
+        });
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        repository.saveAndFlush(sequence);
+        return start;
+    }
+
+    public enum ResetPeriod {
+        DAILY("yyyyMMdd"), MONTHLY("yyyyMM"), YEARLY("yyyy"), NEVER(null);
+
+        private final DateTimeFormatter formatter;
+
+        ResetPeriod(String pattern) {
+            this.formatter = pattern != null ? DateTimeFormatter.ofPattern(pattern) : null;
+        }
+
+        String format(LocalDate date) {
+            return formatter != null ? formatter.format(date) : "";
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.aynlabs.lumoBills.backend.service;
 
 import com.aynlabs.lumoBills.backend.entity.Invoice;
-import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
 import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
 import com.aynlabs.lumoBills.backend.entity.User;
 import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
@@ -15,16 +14,21 @@ public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final StockService stockService;
-    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
     private final com.aynlabs.lumoBills.backend.repository.PaymentRepository paymentRepository;
-    private final com.aynlabs.lumoBills.backend.service.CustomerService customerService;
+    private final InvoiceNumberService invoiceNumberService;
+    private final DailySummaryService dailySummaryService;
+    private final InvoiceTotalsService invoiceTotalsService;
+
+    private void recordSummary(Invoice invoice, DailySummaryService.Delta delta) {
+        java.time.LocalDate day = invoice.getDate() != null ? invoice.getDate().toLocalDate()
+                : java.time.LocalDate.now();
+        dailySummaryService.record(day, delta);
+    }
 
     private void ensureInvoiceNumber(Invoice invoice) {
         if (invoice.getInvoiceNumber() == null || invoice.getInvoiceNumber().trim().isEmpty()) {
-            String prefix = "INV-"
-                    + java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd").format(java.time.LocalDate.now()) + "-";
-            String random = java.util.UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-            invoice.setInvoiceNumber(prefix + random);
+            invoice.setInvoiceNumber(invoiceNumberService.nextInvoiceNumber());
         }
     }
 
@@ -36,15 +40,14 @@ public class InvoiceService {
             invoice.setAmountPaid(invoice.getTotalAmount());
             invoice.setAmountPending(java.math.BigDecimal.ZERO);
 
-            // Deduct stock for each item
-            for (InvoiceItem item : invoice.getItems()) {
-                stockService.adjustStock(
-                        item.getProduct(),
-                        -item.getQuantity(),
-                        TransactionType.SALE,
-                        creator,
-                        "Invoice #" + invoice.getInvoiceNumber());
-            }
+            // Deduct stock for all items
+            stockService.adjustStock(
+                    invoice.getItems().stream()
+                            .map(item -> new StockService.StockLine(item.getProduct(), -item.getQuantity()))
+                            .toList(),
+                    TransactionType.SALE,
+                    creator,
+                    "Invoice #" + invoice.getInvoiceNumber());
 
             // Record Income Ledger
             com.aynlabs.lumoBills.backend.entity.LedgerEntry entry = new com.aynlabs.lumoBills.backend.entity.LedgerEntry();
@@ -55,7 +58,7 @@ public class InvoiceService {
             entry.setDescription("Invoice #" + invoice.getInvoiceNumber() + " Paid");
             entry.setReferenceId(invoice.getInvoiceNumber());
             entry.setPaymentMode(invoice.getPaymentMode());
-            ledgerService.recordEntry(entry);
+            outboxService.enqueueLedgerEntry(entry);
 
         } else if (invoice.getStatus() == Invoice.InvoiceStatus.PENDING) {
             invoice.setAmountPaid(java.math.BigDecimal.ZERO);
@@ -63,9 +66,7 @@ public class InvoiceService {
 
             // Update customer outstanding balance
             if (invoice.getCustomer() != null) {
-                com.aynlabs.lumoBills.backend.entity.Customer c = invoice.getCustomer();
-                c.setOutstandingBalance(c.getOutstandingBalance().add(invoice.getTotalAmount()));
-                customerService.save(c);
+                outboxService.enqueueBalanceChange(invoice.getCustomer(), invoice.getTotalAmount());
             }
         } else if (invoice.getStatus() == Invoice.InvoiceStatus.PARTIAL) {
             if (invoice.getAmountPaid() == null) {
@@ -73,15 +74,14 @@ public class InvoiceService {
             }
             invoice.setAmountPending(invoice.getTotalAmount().subtract(invoice.getAmountPaid()));
 
-            // Deduct stock for each item
-            for (InvoiceItem item : invoice.getItems()) {
-                stockService.adjustStock(
-                        item.getProduct(),
-                        -item.getQuantity(),
-                        TransactionType.SALE,
-                        creator,
-                        "Invoice #" + invoice.getInvoiceNumber());
-            }
+            // Deduct stock for all items
+            stockService.adjustStock(
+                    invoice.getItems().stream()
+                            .map(item -> new StockService.StockLine(item.getProduct(), -item.getQuantity()))
+                            .toList(),
+                    TransactionType.SALE,
+                    creator,
+                    "Invoice #" + invoice.getInvoiceNumber());
 
             // Record Income Ledger for the received amount
             if (invoice.getAmountPaid().compareTo(java.math.BigDecimal.ZERO) > 0) {
@@ -93,14 +93,12 @@ public class InvoiceService {
                 entry.setDescription("Invoice #" + invoice.getInvoiceNumber() + " Partially Paid");
                 entry.setReferenceId(invoice.getInvoiceNumber());
                 entry.setPaymentMode(invoice.getPaymentMode());
-                ledgerService.recordEntry(entry);
+                outboxService.enqueueLedgerEntry(entry);
             }
 
             // Update customer outstanding balance with pending amount
             if (invoice.getCustomer() != null && invoice.getAmountPending().compareTo(java.math.BigDecimal.ZERO) > 0) {
-                com.aynlabs.lumoBills.backend.entity.Customer c = invoice.getCustomer();
-                c.setOutstandingBalance(c.getOutstandingBalance().add(invoice.getAmountPending()));
-                customerService.save(c);
+                outboxService.enqueueBalanceChange(invoice.getCustomer(), invoice.getAmountPending());
             }
         }
 
@@ -111,6 +109,13 @@ public class InvoiceService {
             invoice.getItems().forEach(item -> item.setInvoice(invoice));
         }
 
+        DailySummaryService.Delta summary = DailySummaryService.Delta.invoice(1);
+        if (invoice.getStatus() == Invoice.InvoiceStatus.PAID) {
+            summary = summary.plus(DailySummaryService.Delta.paid(invoice, 1));
+        }
+        recordSummary(invoice, summary);
+        invoiceTotalsService.added(invoice);
+
         invoiceRepository.save(invoice);
     }
 
@@ -122,6 +127,9 @@ public class InvoiceService {
         if (invoice.getItems() != null) {
             invoice.getItems().forEach(item -> item.setInvoice(invoice));
         }
+        if (invoice.getId() == null) {
+            invoiceTotalsService.added(invoice);
+        }
         return invoiceRepository.save(invoice);
     }
 
@@ -132,19 +140,19 @@ public class InvoiceService {
 
             // Track amount to update customer balance
             java.math.BigDecimal amountRemaining = invoice.getAmountPending();
+            Invoice.InvoiceStatus previousStatus = invoice.getStatus();
 
             invoice.setStatus(Invoice.InvoiceStatus.PAID);
             invoice.setAmountPaid(invoice.getTotalAmount());
             invoice.setAmountPending(java.math.BigDecimal.ZERO);
 
-            for (InvoiceItem item : invoice.getItems()) {
-                stockService.adjustStock(
-                        item.getProduct(),
-                        -item.getQuantity(),
-                        TransactionType.SALE,
-                        user,
-                        "Invoice #" + invoice.getInvoiceNumber());
-            }
+            stockService.adjustStock(
+                    invoice.getItems().stream()
+                            .map(item -> new StockService.StockLine(item.getProduct(), -item.getQuantity()))
+                            .toList(),
+                    TransactionType.SALE,
+                    user,
+                    "Invoice #" + invoice.getInvoiceNumber());
 
             // Record Income Ledger
             com.aynlabs.lumoBills.backend.entity.LedgerEntry entry = new com.aynlabs.lumoBills.backend.entity.LedgerEntry();
@@ -155,16 +163,15 @@ public class InvoiceService {
             entry.setDescription("Invoice #" + invoice.getInvoiceNumber() + " Finalized");
             entry.setReferenceId(invoice.getInvoiceNumber());
             entry.setPaymentMode(invoice.getPaymentMode());
-            ledgerService.recordEntry(entry);
+            outboxService.enqueueLedgerEntry(entry);
 
             // Update customer outstanding balance
             if (invoice.getCustomer() != null) {
-                com.aynlabs.lumoBills.backend.entity.Customer c = invoice.getCustomer();
-                // Decrease outstanding balance by the remaining amount just paid
-                c.setOutstandingBalance(c.getOutstandingBalance().subtract(amountRemaining));
-                customerService.save(c);
+                outboxService.enqueueBalanceChange(invoice.getCustomer(), amountRemaining.negate());
             }
 
+            recordSummary(invoice, DailySummaryService.Delta.paid(invoice, 1));
+            invoiceTotalsService.changed(invoice, previousStatus, amountRemaining);
             invoiceRepository.save(invoice);
         }
     }
@@ -177,14 +184,13 @@ public class InvoiceService {
 
         // If it was PAID or PARTIAL, we restore stock and handle refunds
         if (invoice.getStatus() == Invoice.InvoiceStatus.PAID || invoice.getStatus() == Invoice.InvoiceStatus.PARTIAL) {
-            for (InvoiceItem item : invoice.getItems()) {
-                stockService.adjustStock(
-                        item.getProduct(),
-                        item.getQuantity(), // Positive to add back stock
-                        TransactionType.RETURN,
-                        user,
-                        "Cancelled Invoice #" + invoice.getInvoiceNumber());
-            }
+            stockService.adjustStock(
+                    invoice.getItems().stream()
+                            .map(item -> new StockService.StockLine(item.getProduct(), item.getQuantity()))
+                            .toList(),
+                    TransactionType.RETURN,
+                    user,
+                    "Cancelled Invoice #" + invoice.getInvoiceNumber());
         }
 
         // If money was paid, record an expense (refund)
@@ -197,19 +203,26 @@ public class InvoiceService {
             refund.setDescription("Refund for Cancelled Invoice #" + invoice.getInvoiceNumber());
             refund.setReferenceId(invoice.getInvoiceNumber());
             refund.setPaymentMode(invoice.getPaymentMode());
-            ledgerService.recordEntry(refund);
+            outboxService.enqueueLedgerEntry(refund);
         }
 
         // If they owed money, reduce their outstanding balance
         if (invoice.getCustomer() != null && invoice.getAmountPending().compareTo(java.math.BigDecimal.ZERO) > 0) {
-            com.aynlabs.lumoBills.backend.entity.Customer c = invoice.getCustomer();
-            c.setOutstandingBalance(c.getOutstandingBalance().subtract(invoice.getAmountPending()));
-            customerService.save(c);
+            outboxService.enqueueBalanceChange(invoice.getCustomer(), invoice.getAmountPending().negate());
+        }
+
+        DailySummaryService.Delta summary = DailySummaryService.Delta.invoice(-1);
+        if (invoice.getStatus() == Invoice.InvoiceStatus.PAID) {
+            summary = summary.plus(DailySummaryService.Delta.paid(invoice, -1));
         }
+        recordSummary(invoice, summary);
 
+        Invoice.InvoiceStatus previousStatus = invoice.getStatus();
+        java.math.BigDecimal previousPending = invoice.getAmountPending();
         invoice.setStatus(Invoice.InvoiceStatus.CANCELLED);
         invoice.setAmountPaid(java.math.BigDecimal.ZERO);
         invoice.setAmountPending(java.math.BigDecimal.ZERO);
+        invoiceTotalsService.changed(invoice, previousStatus, previousPending);
         invoiceRepository.save(invoice);
     }
 
@@ -234,21 +247,23 @@ public class InvoiceService {
         paymentRepository.save(payment);
 
         // Update Invoice
+        Invoice.InvoiceStatus previousStatus = invoice.getStatus();
+        java.math.BigDecimal previousPending = invoice.getAmountPending();
         invoice.setAmountPaid(invoice.getAmountPaid().add(amount));
         invoice.setAmountPending(invoice.getAmountPending().subtract(amount));
 
         if (invoice.getAmountPending().compareTo(java.math.BigDecimal.ZERO) == 0) {
             invoice.setStatus(Invoice.InvoiceStatus.PAID);
+            recordSummary(invoice, DailySummaryService.Delta.paid(invoice, 1));
         } else {
             invoice.setStatus(Invoice.InvoiceStatus.PARTIAL);
         }
+        invoiceTotalsService.changed(invoice, previousStatus, previousPending);
         invoiceRepository.save(invoice);
 
         // Update Customer Balance
         if (invoice.getCustomer() != null) {
-            com.aynlabs.lumoBills.backend.entity.Customer c = invoice.getCustomer();
-            c.setOutstandingBalance(c.getOutstandingBalance().subtract(amount));
-            customerService.save(c);
+            outboxService.enqueueBalanceChange(invoice.getCustomer(), amount.negate());
         }
 
         // Record Income
@@ -260,11 +275,11 @@ public class InvoiceService {
         entry.setDescription("Payment towards Invoice #" + invoice.getInvoiceNumber());
         entry.setReferenceId(invoice.getInvoiceNumber());
         entry.setPaymentMode(mode);
-        ledgerService.recordEntry(entry);
+        outboxService.enqueueLedgerEntry(entry);
     }
 
     public java.math.BigDecimal getTotalSalesAmount() {
-        return getTotalSalesAmountBetween(java.time.LocalDateTime.MIN, java.time.LocalDateTime.MAX);
+        return invoiceTotalsService.getLifetimeSales();
     }
 
     public java.math.BigDecimal getTotalSalesAmountBetween(java.time.LocalDateTime start, java.time.LocalDateTime end) {
@@ -275,11 +290,7 @@ public class InvoiceService {
     }
 
     public java.math.BigDecimal getPendingSalesAmount() {
-        return invoiceRepository.findAll().stream()
-                .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PENDING
-                        || i.getStatus() == Invoice.InvoiceStatus.PARTIAL)
-                .map(i -> i.getAmountPending() != null ? i.getAmountPending() : java.math.BigDecimal.ZERO)
-                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+        return invoiceTotalsService.getPendingAmount();
     }
 
     public long count() {
@@ -289,4 +300,28 @@ public class InvoiceService {
     public java.util.List<Invoice> findAll() {
         return invoiceRepository.findAll();
     }
+
+    public java.util.Optional<Invoice> findById(Long id) {
+        return invoiceRepository.findDetailById(id);
+    }
+
+    public java.util.List<Invoice> findRecent(int limit) {
+        return invoiceRepository.findListPage(null, null, null, null, null,
+                org.springframework.data.domain.PageRequest.of(0, limit));
+    }
+
+    public java.util.List<Invoice> findListPage(String term, Invoice.InvoiceStatus status,
+            java.time.LocalDateTime start, java.time.LocalDateTime end, Long afterId,
+            org.springframework.data.domain.Pageable pageable) {
+        return invoiceRepository.findListPage(toLikePattern(term), status, start, end, afterId, pageable);
+    }
+
+    public long countList(String term, Invoice.InvoiceStatus status, java.time.LocalDateTime start,
+            java.time.LocalDateTime end) {
+        return invoiceRepository.countList(toLikePattern(term), status, start, end);
+    }
+
+    private String toLikePattern(String term) {
+        return term == null || term.isBlank() ? null : "%" + term.trim().toLowerCase() + "%";
+    }
 }
@@ -0,0 +1,230 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.InvoiceStatusTotal;
+import com.aynlabs.lumoBills.backend.event.InvoiceTotalsChangedEvent;
+import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
+import com.aynlabs.lumoBills.backend.repository.InvoiceStatusTotalRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps invoice counts, pending receivables and sales per status in the
+ * invoice_status_total table, so the totals never need a scan of the invoice
+ * table. InvoiceService reports each status or amount change through
+ * {@link #added} and {@link #changed} inside its own transaction; like the
+ * daily summary, the change is queued in the outbox and added to the status
+ * row by the dispatcher, see {@link #apply}, which keeps the few hot rows out
+ * of checkout. A scheduled job compares the totals with the invoice table and
+ * reports lasting drift.
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceTotalsService {
+
+    private final InvoiceStatusTotalRepository totalRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Difference found per status on the previous reconcile run. */
+    private final Map<Invoice.InvoiceStatus, String> previousDrift = new ConcurrentHashMap<>();
+
+    /** Counts a newly saved invoice under its status. */
+    public void added(Invoice invoice) {
+        record(invoice.getStatus(), new Delta(1, orZero(invoice.getAmountPending()), orZero(invoice.getTotalAmount())));
+    }
+
+    /**
+     * Moves an invoice from the status and pending amount it had before the
+     * change to the ones it has now.
+     */
+    public void changed(Invoice invoice, Invoice.InvoiceStatus previousStatus, BigDecimal previousPending) {
+        BigDecimal total = orZero(invoice.getTotalAmount());
+        BigDecimal pending = orZero(invoice.getAmountPending());
+        if (previousStatus == invoice.getStatus()) {
+            record(previousStatus, new Delta(0, pending.subtract(orZero(previousPending)), BigDecimal.ZERO));
+        } else {
+            record(previousStatus, new Delta(-1, orZero(previousPending).negate(), total.negate()));
+            record(invoice.getStatus(), new Delta(1, pending, total));
+        }
+    }
+
+    /**
+     * Adds a delta to the status row. Listeners are told once this commits, so
+     * anything they read from the totals already includes the delta.
+     */
+    @Transactional
+    public void apply(Invoice.InvoiceStatus status, Delta delta) {
+        if (addDelta(status, delta) == 0) {
+            createRow(status);
+            addDelta(status, delta);
+        }
+        eventPublisher.publishEvent(new InvoiceTotalsChangedEvent(status));
+    }
+
+    /** Outstanding receivables: the pending amount of PENDING and PARTIAL invoices. */
+    public BigDecimal getPendingAmount() {
+        return getTotals().entrySet().stream()
+                .filter(e -> e.getKey() == Invoice.InvoiceStatus.PENDING
+                        || e.getKey() == Invoice.InvoiceStatus.PARTIAL)
+                .map(e -> e.getValue().getAmountPending())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /** Total amount of all PAID invoices. */
+    public BigDecimal getLifetimeSales() {
+        InvoiceStatusTotal paid = getTotals().get(Invoice.InvoiceStatus.PAID);
+        return paid != null ? paid.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    public Map<Invoice.InvoiceStatus, Long> getCountsByStatus() {
+        Map<Invoice.InvoiceStatus, Long> counts = new EnumMap<>(Invoice.InvoiceStatus.class);
+        for (Invoice.InvoiceStatus status : Invoice.InvoiceStatus.values()) {
+            counts.put(status, 0L);
+        }
+        getTotals().forEach((status, total) -> counts.put(status, total.getInvoiceCount()));
+        return counts;
+    }
+
+    private Map<Invoice.InvoiceStatus, InvoiceStatusTotal> getTotals() {
+        Map<Invoice.InvoiceStatus, InvoiceStatusTotal> totals = new EnumMap<>(Invoice.InvoiceStatus.class);
+        totalRepository.findAll().forEach(total -> totals.put(total.getStatus(), total));
+        return totals;
+    }
+
+    /**
+     * Builds the row of every status that has none from the invoice table. Its
+     * totals deltas still waiting in the outbox are already part of that and
+     * are dropped; a write committing meanwhile shows up in {@link #reconcile}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        Map<Invoice.InvoiceStatus, InvoiceStatusTotal> missing = new EnumMap<>(Invoice.InvoiceStatus.class);
+        for (Invoice.InvoiceStatus status : Invoice.InvoiceStatus.values()) {
+            missing.put(status, newRow(status));
+        }
+        totalRepository.findAll().forEach(total -> missing.remove(total.getStatus()));
+        if (missing.isEmpty()) {
+            return;
+        }
+        missing.keySet().forEach(outboxService::discardTotalsDeltas);
+        for (Object[] row : invoiceRepository.summariseByStatus()) {
+            InvoiceStatusTotal total = missing.get((Invoice.InvoiceStatus) row[0]);
+            if (total != null) {
+                total.setInvoiceCount(((Number) row[1]).longValue());
+                total.setAmountPending(toBigDecimal(row[2]));
+                total.setTotalAmount(toBigDecimal(row[3]));
+            }
+        }
+        totalRepository.saveAll(missing.values());
+        System.out.println("Built invoice totals for " + missing.keySet());
+    }
+
+    /**
+     * Compares the running totals with a GROUP BY over the invoice table. The
+     * two reads do not share a snapshot and deltas still in the outbox are not
+     * in the totals yet, so one difference proves nothing. A status is
+     * reported only when it is off by exactly the same amounts as on the
+     * previous run: in-flight changes come and go, real drift stays.
+     */
+    @Scheduled(initialDelayString = "${lumobills.invoice.totals-reconcile-ms:3600000}",
+            fixedDelayString = "${lumobills.invoice.totals-reconcile-ms:3600000}")
+    @Transactional(readOnly = true)
+    public List<String> reconcile() {
+        Map<Invoice.InvoiceStatus, InvoiceStatusTotal> totals = getTotals();
+        Map<Invoice.InvoiceStatus, Object[]> actual = new EnumMap<>(Invoice.InvoiceStatus.class);
+        for (Object[] row : invoiceRepository.summariseByStatus()) {
+            actual.put((Invoice.InvoiceStatus) row[0], row);
+        }
+
+        List<String> drift = new ArrayList<>();
+        for (Invoice.InvoiceStatus status : Invoice.InvoiceStatus.values()) {
+            InvoiceStatusTotal total = totals.get(status);
+            Object[] row = actual.get(status);
+            long expectedCount = row != null ? ((Number) row[1]).longValue() : 0;
+            BigDecimal expectedPending = row != null ? toBigDecimal(row[2]) : BigDecimal.ZERO;
+            BigDecimal expectedTotal = row != null ? toBigDecimal(row[3]) : BigDecimal.ZERO;
+            long count = total != null ? total.getInvoiceCount() : 0;
+            BigDecimal pending = total != null ? total.getAmountPending() : BigDecimal.ZERO;
+            BigDecimal amount = total != null ? total.getTotalAmount() : BigDecimal.ZERO;
+            if (count == expectedCount && pending.compareTo(expectedPending) == 0
+                    && amount.compareTo(expectedTotal) == 0) {
+                previousDrift.remove(status);
+                continue;
+            }
+            String difference = (count - expectedCount) + " "
+                    + pending.subtract(expectedPending).stripTrailingZeros().toPlainString() + " "
+                    + amount.subtract(expectedTotal).stripTrailingZeros().toPlainString();
+            if (difference.equals(previousDrift.put(status, difference))) {
+                drift.add(String.format("%s: count %d (expected %d), pending %s (expected %s), total %s (expected %s)",
+                        status, count, expectedCount, pending, expectedPending, amount, expectedTotal));
+            }
+        }
+        drift.forEach(line -> System.err.println("Invoice totals drift - " + line));
+        return drift;
+    }
+
+    private void record(Invoice.InvoiceStatus status, Delta delta) {
+        if (status != null) {
+            outboxService.enqueueTotalsDelta(status, delta);
+        }
+    }
+
+    private int addDelta(Invoice.InvoiceStatus status, Delta delta) {
+        return totalRepository.addDelta(status, delta.invoiceCount(), delta.amountPending(), delta.totalAmount());
+    }
+
+    private void createRow(Invoice.InvoiceStatus status) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            tx.executeWithoutResult(s -> totalRepository.saveAndFlush(newRow(status)));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another node, the retried update will find it
+        }
+    }
+
+    private InvoiceStatusTotal newRow(Invoice.InvoiceStatus status) {
+        InvoiceStatusTotal row = new InvoiceStatusTotal();
+        row.setStatus(status);
+        return row;
+    }
+
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    /** A signed change to one status's totals. Deltas for the same status can simply be added. */
+    public record Delta(long invoiceCount, BigDecimal amountPending, BigDecimal totalAmount) {
+
+        public Delta plus(Delta other) {
+            return new Delta(invoiceCount + other.invoiceCount, amountPending.add(other.amountPending),
+                    totalAmount.add(other.totalAmount));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.LedgerEntry;
+import com.aynlabs.lumoBills.backend.entity.LedgerPeriod;
+import com.aynlabs.lumoBills.backend.entity.LedgerPeriodTotal;
+import com.aynlabs.lumoBills.backend.repository.LedgerEntryRepository;
+import com.aynlabs.lumoBills.backend.repository.LedgerPeriodRepository;
+import com.aynlabs.lumoBills.backend.repository.LedgerPeriodTotalRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Monthly closing totals of the ledger.
+ * <p>
+ * Every finished month is closed once into one row per type, category and
+ * payment mode. A range total reads the closed months inside the range and
+ * runs a single grouped query for each stretch that is not covered, which is
+ * normally just the partial months at either end. An entry dated into a
+ * closed month reopens it, and the next close run rebuilds it. Both lock the
+ * month's LedgerPeriod row first, so an entry committing while its month is
+ * being closed either is in the totals or reopens the month.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerPeriodService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerPeriodRepository periodRepository;
+    private final LedgerPeriodTotalRepository periodTotalRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Totals for entries in [start, end); a null bound is open.
+     */
+    public List<LedgerService.TotalLine> summarise(LocalDateTime start, LocalDateTime end) {
+        LocalDate firstMonth = start == null ? null : firstMonthStartingAtOrAfter(start);
+        LocalDate monthsBefore = end == null ? null : end.toLocalDate().withDayOfMonth(1);
+        List<LocalDate> closed = firstMonth != null && monthsBefore != null && !firstMonth.isBefore(monthsBefore)
+                ? List.of()
+                : periodRepository.findClosedMonths(firstMonth, monthsBefore);
+
+        Map<LineKey, LedgerService.TotalLine> lines = new LinkedHashMap<>();
+        if (!closed.isEmpty()) {
+            merge(lines, periodTotalRepository.summarise(closed));
+        }
+
+        // Raw entries for every stretch between closed months
+        LocalDateTime cursor = start;
+        for (LocalDate month : closed) {
+            LocalDateTime monthStart = month.atStartOfDay();
+            if (cursor == null || cursor.isBefore(monthStart)) {
+                merge(lines, ledgerEntryRepository.summarise(cursor, monthStart));
+            }
+            cursor = month.plusMonths(1).atStartOfDay();
+        }
+        if (cursor == null || end == null || cursor.isBefore(end)) {
+            merge(lines, ledgerEntryRepository.summarise(cursor, end));
+        }
+        return new ArrayList<>(lines.values());
+    }
+
+    /**
+     * Reopens the month of a backdated entry. Called in the transaction that
+     * records the entry.
+     */
+    public void entryRecorded(LedgerEntry entry) {
+        LocalDate month = entry.getTransactionDate().toLocalDate().withDayOfMonth(1);
+        if (!month.isBefore(LocalDate.now().withDayOfMonth(1))) {
+            return;
+        }
+        LedgerPeriod period = lockMonth(month);
+        if (period.getClosedAt() != null) {
+            period.setClosedAt(null);
+            periodTotalRepository.deleteByPeriodStart(month);
+        }
+    }
+
+    /**
+     * Closes every finished month that is not closed yet, each in its own
+     * transaction.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${lumobills.ledger.close-cron:0 15 0 * * *}")
+    public void closeFinishedMonths() {
+        LocalDateTime earliest = ledgerEntryRepository.findEarliestTransactionDate();
+        if (earliest == null) {
+            return;
+        }
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        Set<LocalDate> closed = new HashSet<>(periodRepository.findClosedMonths(null, currentMonth));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int count = 0;
+        for (LocalDate month = earliest.toLocalDate().withDayOfMonth(1); month.isBefore(currentMonth);
+                month = month.plusMonths(1)) {
+            if (closed.contains(month)) {
+                continue;
+            }
+            LocalDate periodStart = month;
+            if (Boolean.TRUE.equals(tx.execute(status -> closeMonth(periodStart)))) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            System.out.println("Closed " + count + " ledger months");
+        }
+    }
+
+    /** Closes the month unless another node already did; false if it was closed. */
+    private boolean closeMonth(LocalDate month) {
+        // Lock before summing: a backdated entry still in flight waits for the close and then reopens the month
+        LedgerPeriod period = lockMonth(month);
+        if (period.getClosedAt() != null) {
+            return false;
+        }
+        List<LedgerPeriodTotal> totals = new ArrayList<>();
+        for (Object[] row : ledgerEntryRepository.summarise(month.atStartOfDay(),
+                month.plusMonths(1).atStartOfDay())) {
+            LedgerPeriodTotal total = new LedgerPeriodTotal();
+            total.setPeriodStart(month);
+            total.setType((LedgerEntry.EntryType) row[0]);
+            total.setCategory((String) row[1]);
+            total.setPaymentMode((Invoice.PaymentMode) row[2]);
+            total.setAmount(toBigDecimal(row[3]));
+            total.setEntryCount(((Number) row[4]).longValue());
+            totals.add(total);
+        }
+        periodTotalRepository.saveAll(totals);
+        period.setClosedAt(LocalDateTime.now());
+        return true;
+    }
+
+    /** The month's row, created open if missing, locked until the calling transaction ends. */
+    private LedgerPeriod lockMonth(LocalDate month) {
+        Optional<LedgerPeriod> period = periodRepository.findByPeriodStart(month);
+        if (period.isEmpty()) {
+            createRow(month);
+            period = periodRepository.findByPeriodStart(month);
+        }
+        return period.orElseThrow();
+    }
+
+    private void createRow(LocalDate month) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            tx.executeWithoutResult(status -> {
+                LedgerPeriod period = new LedgerPeriod();
+                period.setPeriodStart(month);
+                periodRepository.saveAndFlush(period);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently, the locking read will find it
+        }
+    }
+
+    private void merge(Map<LineKey, LedgerService.TotalLine> lines, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            LedgerService.TotalLine line = new LedgerService.TotalLine((LedgerEntry.EntryType) row[0],
+                    (String) row[1], (Invoice.PaymentMode) row[2], toBigDecimal(row[3]),
+                    ((Number) row[4]).longValue());
+            lines.merge(new LineKey(line.type(), line.category(), line.paymentMode()), line,
+                    LedgerService.TotalLine::plus);
+        }
+    }
+
+    private LocalDate firstMonthStartingAtOrAfter(LocalDateTime start) {
+        LocalDate month = start.toLocalDate().withDayOfMonth(1);
+        return start.equals(month.atStartOfDay()) ? month : month.plusMonths(1);
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private record LineKey(LedgerEntry.EntryType type, String category, Invoice.PaymentMode paymentMode) {
+    }
+}
@@ -1,9 +1,14 @@
 package com.aynlabs.lumoBills.backend.service;
 
+import com.aynlabs.lumoBills.backend.entity.Invoice;
 import com.aynlabs.lumoBills.backend.entity.LedgerEntry;
 import com.aynlabs.lumoBills.backend.repository.LedgerEntryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,29 +19,77 @@ import java.util.List;
 public class LedgerService {
 
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerPeriodService ledgerPeriodService;
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("id"));
+
+    @Transactional
     public void recordEntry(LedgerEntry entry) {
         if (entry.getTransactionDate() == null) {
             entry.setTransactionDate(LocalDateTime.now());
         }
         ledgerEntryRepository.save(entry);
+        ledgerPeriodService.entryRecorded(entry);
+    }
+
+    /**
+     * One page of the entries between start and end (both inclusive), newest
+     * first unless the page asks for another order. Ties are broken by id so
+     * that pages do not overlap.
+     */
+    public List<LedgerEntry> getEntriesBetween(LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort().and(Sort.by("id")) : NEWEST_FIRST;
+        return ledgerEntryRepository.findByTransactionDateBetween(start, end,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
     }
 
-    public List<LedgerEntry> getEntriesBetween(LocalDateTime start, LocalDateTime end) {
-        return ledgerEntryRepository.findByTransactionDateBetweenOrderByTransactionDateDesc(start, end);
+    /**
+     * Income, expense and the per category and payment mode breakdown for
+     * entries between start and end (both inclusive, MIN/MAX for open ends),
+     * read from the monthly closing totals where possible.
+     */
+    public LedgerTotals getTotals(LocalDateTime start, LocalDateTime end) {
+        List<TotalLine> lines = ledgerPeriodService.summarise(
+                LocalDateTime.MIN.equals(start) ? null : start,
+                LocalDateTime.MAX.equals(end) ? null : end.plusNanos(1));
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        for (TotalLine line : lines) {
+            if (line.type() == LedgerEntry.EntryType.INCOME) {
+                income = income.add(line.amount());
+            } else if (line.type() == LedgerEntry.EntryType.EXPENSE) {
+                expense = expense.add(line.amount());
+            }
+        }
+        return new LedgerTotals(income, expense, lines);
     }
 
     public BigDecimal getTotalIncome(LocalDateTime start, LocalDateTime end) {
-        return getEntriesBetween(start, end).stream()
-                .filter(e -> e.getType() == LedgerEntry.EntryType.INCOME)
-                .map(LedgerEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getTotals(start, end).income();
     }
 
     public BigDecimal getTotalExpense(LocalDateTime start, LocalDateTime end) {
-        return getEntriesBetween(start, end).stream()
-                .filter(e -> e.getType() == LedgerEntry.EntryType.EXPENSE)
-                .map(LedgerEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getTotals(start, end).expense();
+    }
+
+    public record LedgerTotals(BigDecimal income, BigDecimal expense, List<TotalLine> lines) {
+
+        public BigDecimal net() {
+            return income.subtract(expense);
+        }
+
+        /** Number of entries in the range, so a paged list needs no count query of its own. */
+        public long entryCount() {
+            return lines.stream().mapToLong(TotalLine::entryCount).sum();
+        }
+    }
+
+    public record TotalLine(LedgerEntry.EntryType type, String category, Invoice.PaymentMode paymentMode,
+            BigDecimal amount, long entryCount) {
+
+        public TotalLine plus(TotalLine other) {
+            return new TotalLine(type, category, paymentMode, amount.add(other.amount),
+                    entryCount + other.entryCount);
+        }
     }
 }
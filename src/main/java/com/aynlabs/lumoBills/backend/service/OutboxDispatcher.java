@@ -0,0 +1,149 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import com.aynlabs.lumoBills.backend.repository.OutboxEventRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies pending outbox events in the background.
+ * <p>
+ * Each event is claimed, applied and marked done in one transaction, so an
+ * event takes effect exactly once even with several nodes polling. Events of
+ * the same aggregate key are applied in id order. When one fails, the later
+ * events of that key wait until it succeeds or runs out of attempts.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final LedgerService ledgerService;
+    private final CustomerService customerService;
+    private final DailySummaryService dailySummaryService;
+    private final InvoiceTotalsService invoiceTotalsService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${lumobills.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${lumobills.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${lumobills.outbox.coalesce-deltas:true}")
+    private boolean coalesceDeltas;
+
+    @Scheduled(fixedDelayString = "${lumobills.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Set<String> blockedKeys = new HashSet<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (blockedKeys.contains(event.getAggregateKey())) {
+                continue;
+            }
+
+            List<OutboxEvent> group = List.of(event);
+            if (coalesceDeltas && event.getEventType() != OutboxEvent.EventType.LEDGER_ENTRY) {
+                // Balance and summary deltas add up in any order, so a burst for one key becomes one update
+                group = collectBurst(batch, i);
+                blockedKeys.add(event.getAggregateKey());
+            }
+            List<OutboxEvent> events = group;
+            try {
+                tx.executeWithoutResult(status -> applyAll(events));
+            } catch (Exception e) {
+                blockedKeys.add(event.getAggregateKey());
+                tx.executeWithoutResult(status -> recordFailure(event.getId(), e));
+            }
+        }
+    }
+
+    private List<OutboxEvent> collectBurst(List<OutboxEvent> batch, int from) {
+        String key = batch.get(from).getAggregateKey();
+        List<OutboxEvent> burst = new ArrayList<>();
+        for (OutboxEvent candidate : batch.subList(from, batch.size())) {
+            if (candidate.getAggregateKey().equals(key)) {
+                burst.add(candidate);
+            }
+        }
+        return burst;
+    }
+
+    private void applyAll(List<OutboxEvent> events) {
+        BigDecimal balanceDelta = BigDecimal.ZERO;
+        Long customerId = null;
+        DailySummaryService.Delta summaryDelta = null;
+        java.time.LocalDate summaryDate = null;
+        InvoiceTotalsService.Delta totalsDelta = null;
+        com.aynlabs.lumoBills.backend.entity.Invoice.InvoiceStatus totalsStatus = null;
+        for (OutboxEvent event : events) {
+            if (outboxEventRepository.claim(event.getId(), LocalDateTime.now()) == 0) {
+                continue; // taken by another node
+            }
+            if (event.getEventType() == OutboxEvent.EventType.CUSTOMER_BALANCE) {
+                OutboxService.BalanceChange change = outboxService.readPayload(event,
+                        OutboxService.BalanceChange.class);
+                customerId = change.customerId();
+                balanceDelta = balanceDelta.add(change.delta());
+            } else if (event.getEventType() == OutboxEvent.EventType.DAILY_SUMMARY) {
+                OutboxService.SummaryChange change = outboxService.readPayload(event,
+                        OutboxService.SummaryChange.class);
+                summaryDate = change.date();
+                summaryDelta = summaryDelta == null ? change.delta() : summaryDelta.plus(change.delta());
+            } else if (event.getEventType() == OutboxEvent.EventType.INVOICE_TOTALS) {
+                OutboxService.TotalsChange change = outboxService.readPayload(event,
+                        OutboxService.TotalsChange.class);
+                totalsStatus = change.status();
+                totalsDelta = totalsDelta == null ? change.delta() : totalsDelta.plus(change.delta());
+            } else {
+                ledgerService.recordEntry(
+                        outboxService.readPayload(event, OutboxService.LedgerPosting.class).toEntry());
+            }
+        }
+        if (customerId != null) {
+            customerService.postBalance(customerId, balanceDelta);
+        }
+        if (summaryDate != null) {
+            dailySummaryService.apply(summaryDate, summaryDelta);
+        }
+        if (totalsStatus != null) {
+            invoiceTotalsService.apply(totalsStatus, totalsDelta);
+        }
+    }
+
+    private void recordFailure(Long eventId, Exception e) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+            event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxEvent.Status.FAILED);
+                System.err.println("Outbox event " + eventId + " failed after " + attempts + " attempts: " + message);
+            } else {
+                // Exponential backoff: 2s, 4s, 8s, ...
+                event.setAvailableAt(LocalDateTime.now().plusSeconds(1L << attempts));
+            }
+            outboxEventRepository.save(event);
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.LedgerEntry;
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import com.aynlabs.lumoBills.backend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records side effects of invoice operations as outbox events in the caller's
+ * transaction. They are applied asynchronously by the OutboxDispatcher.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void enqueueLedgerEntry(LedgerEntry entry) {
+        if (entry.getTransactionDate() == null) {
+            entry.setTransactionDate(LocalDateTime.now());
+        }
+        LedgerPosting posting = new LedgerPosting(entry.getTransactionDate(), entry.getType(), entry.getCategory(),
+                entry.getAmount(), entry.getDescription(), entry.getReferenceId(), entry.getPaymentMode());
+        enqueue("ledger:" + entry.getReferenceId(), OutboxEvent.EventType.LEDGER_ENTRY, posting);
+    }
+
+    public void enqueueBalanceChange(Customer customer, BigDecimal delta) {
+        if (customer == null || customer.getId() == null || delta.signum() == 0) {
+            return;
+        }
+        enqueue("customer:" + customer.getId(), OutboxEvent.EventType.CUSTOMER_BALANCE,
+                new BalanceChange(customer.getId(), delta));
+    }
+
+    public void enqueueSummaryDelta(LocalDate date, DailySummaryService.Delta delta) {
+        enqueue("summary:" + date, OutboxEvent.EventType.DAILY_SUMMARY, new SummaryChange(date, delta));
+    }
+
+    public void enqueueTotalsDelta(Invoice.InvoiceStatus status, InvoiceTotalsService.Delta delta) {
+        enqueue(totalsKey(status), OutboxEvent.EventType.INVOICE_TOTALS, new TotalsChange(status, delta));
+    }
+
+    /**
+     * Drops the totals deltas of a status that are still waiting, for when its
+     * row is rebuilt from the invoice table, which already includes them.
+     */
+    public int discardTotalsDeltas(Invoice.InvoiceStatus status) {
+        return outboxEventRepository.discardPending(totalsKey(status), LocalDateTime.now());
+    }
+
+    private static String totalsKey(Invoice.InvoiceStatus status) {
+        return "totals:" + status;
+    }
+
+    /**
+     * Puts events that ran out of attempts back in the queue. Failed events
+     * were rolled back when they failed, so applying them again is safe.
+     */
+    @Transactional
+    public int replayFailed() {
+        return outboxEventRepository.resetFailed(LocalDateTime.now());
+    }
+
+    public long countFailed() {
+        return outboxEventRepository.countByStatus(OutboxEvent.Status.FAILED);
+    }
+
+    <T> T readPayload(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for event " + event.getId(), e);
+        }
+    }
+
+    private void enqueue(String key, OutboxEvent.EventType type, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateKey(key);
+        event.setEventType(type);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialise outbox payload", e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        event.setCreatedAt(now);
+        event.setAvailableAt(now);
+        outboxEventRepository.save(event);
+    }
+
+    public record LedgerPosting(LocalDateTime transactionDate, LedgerEntry.EntryType type, String category,
+            BigDecimal amount, String description, String referenceId, Invoice.PaymentMode paymentMode) {
+
+        LedgerEntry toEntry() {
+            LedgerEntry entry = new LedgerEntry();
+            entry.setTransactionDate(transactionDate);
+            entry.setType(type);
+            entry.setCategory(category);
+            entry.setAmount(amount);
+            entry.setDescription(description);
+            entry.setReferenceId(referenceId);
+            entry.setPaymentMode(paymentMode);
+            return entry;
+        }
+    }
+
+    public record BalanceChange(Long customerId, BigDecimal delta) {
+    }
+
+    public record SummaryChange(LocalDate date, DailySummaryService.Delta delta) {
+    }
+
+    public record TotalsChange(Invoice.InvoiceStatus status, InvoiceTotalsService.Delta delta) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.Discount;
+import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
+import com.aynlabs.lumoBills.backend.entity.Tax;
+import com.aynlabs.lumoBills.backend.repository.DiscountRepository;
+import com.aynlabs.lumoBills.backend.repository.TaxRepository;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Prices carts against the active taxes and discounts.
+ * <p>
+ * The active rows are compiled into a {@link RuleSet} of three precomputed
+ * figures, so a quote is a couple of multiplications with no database access.
+ * The rule set is rebuilt when TaxService or DiscountService saves or deletes
+ * a row, and when the tables' change marker moves (edits on another node).
+ */
+@Service
+@RequiredArgsConstructor
+public class PricingEngine {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final TaxRepository taxRepository;
+    private final DiscountRepository discountRepository;
+
+    private volatile RuleSet rules = new RuleSet(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    private volatile String loadedVersion;
+
+    public Quote quote(Collection<InvoiceItem> items) {
+        BigDecimal subTotal = BigDecimal.ZERO;
+        for (InvoiceItem item : items) {
+            subTotal = subTotal.add(item.getSubTotal());
+        }
+        return quote(subTotal);
+    }
+
+    public Quote quote(BigDecimal subTotal) {
+        RuleSet current = rules;
+        // Summed rates give the same result as applying each rule in turn
+        BigDecimal discount = current.fixedDiscount().add(subTotal.multiply(current.discountRate()));
+        if (discount.compareTo(subTotal) > 0) {
+            discount = subTotal;
+        }
+        BigDecimal taxable = subTotal.subtract(discount);
+        BigDecimal tax = taxable.multiply(current.taxRate());
+        return new Quote(subTotal, discount, tax, taxable.add(tax));
+    }
+
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    @PostConstruct
+    public synchronized void refresh() {
+        String version = readVersion();
+        BigDecimal fixedDiscount = BigDecimal.ZERO;
+        BigDecimal discountRate = BigDecimal.ZERO;
+        for (Discount discount : discountRepository.findByActiveTrue()) {
+            if (discount.getDiscountValue() == null) {
+                continue;
+            }
+            if (discount.getType() == Discount.DiscountType.FIXED) {
+                fixedDiscount = fixedDiscount.add(discount.getDiscountValue());
+            } else {
+                discountRate = discountRate.add(discount.getDiscountValue().divide(HUNDRED));
+            }
+        }
+        BigDecimal taxRate = BigDecimal.ZERO;
+        for (Tax tax : taxRepository.findByActiveTrue()) {
+            if (tax.getPercentage() != null) {
+                taxRate = taxRate.add(tax.getPercentage().divide(HUNDRED));
+            }
+        }
+        rules = new RuleSet(fixedDiscount, discountRate, taxRate);
+        loadedVersion = version;
+    }
+
+    @Scheduled(fixedDelayString = "${lumobills.pricing.poll-interval-ms:30000}")
+    public void refreshIfChanged() {
+        if (!readVersion().equals(loadedVersion)) {
+            refresh();
+        }
+    }
+
+    private String readVersion() {
+        Object[] taxes = taxRepository.findChangeVersion().get(0);
+        Object[] discounts = discountRepository.findChangeVersion().get(0);
+        return taxes[0] + ":" + taxes[1] + "/" + discounts[0] + ":" + discounts[1];
+    }
+
+    /** Compiled form of the active rows: fixed discounts summed, percentages summed and divided by 100. */
+    public record RuleSet(BigDecimal fixedDiscount, BigDecimal discountRate, BigDecimal taxRate) {
+    }
+
+    public record Quote(BigDecimal subTotal, BigDecimal discount, BigDecimal tax, BigDecimal total) {
+    }
+}
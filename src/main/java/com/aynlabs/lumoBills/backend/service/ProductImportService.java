@@ -0,0 +1,448 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.entity.User;
+import com.aynlabs.lumoBills.backend.importer.SheetReader;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import com.aynlabs.lumoBills.backend.search.ProductCodeIndex;
+import com.aynlabs.lumoBills.backend.search.ProductSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bulk import of products and their opening stock from CSV or XLSX.
+ * <p>
+ * The file is read one row at a time and written in chunks, each chunk in its
+ * own transaction, so memory stays bounded whatever the file size. Rows are
+ * matched to existing products by code, or by name when they have no code,
+ * and updated in place; other rows create products. Opening stock is applied
+ * only to products the import creates, through StockService as one PURCHASE
+ * entry per product; existing products keep their stock. Bad rows are
+ * collected with their row number and the rest of the file carries on.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final String OPENING_STOCK_NOTE = "Opening stock (import)";
+
+    private final SheetReader sheetReader;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final StockService stockService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCodeIndex codeIndex;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${lumobills.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${lumobills.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${lumobills.import.max-file-size:512MB}")
+    private DataSize maxFileSize;
+
+    private ExecutorService importExecutor;
+
+    /** Largest import file in bytes, for the upload component. */
+    public int getMaxFileSize() {
+        return (int) Math.min(Integer.MAX_VALUE, maxFileSize.toBytes());
+    }
+
+    /**
+     * Runs the import on the import thread and deletes the file afterwards.
+     * Imports queue behind each other, so two never write at the same time.
+     */
+    public CompletableFuture<ImportResult> importProductsAsync(Path file, SheetReader.Format format, User user,
+            Consumer<ImportProgress> progress, BooleanSupplier cancelled) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return importProducts(file, format, user, progress, cancelled);
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Could not delete import file " + file + ": " + e.getMessage());
+                }
+            }
+        }, importExecutor);
+    }
+
+    public ImportResult importProducts(Path file, SheetReader.Format format, User user,
+            Consumer<ImportProgress> progress, BooleanSupplier cancelled) {
+        ImportRun run = new ImportRun(user, progress, cancelled);
+        try {
+            sheetReader.read(file, format, run::row);
+            run.flush();
+        } catch (CancellationException e) {
+            run.cancelled = true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Product import failed: " + e.getMessage());
+            run.error(0, "Import stopped: " + e.getMessage());
+        }
+        return run.result();
+    }
+
+    @PostConstruct
+    void startImportThread() {
+        importExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "product-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopImportThread() {
+        importExecutor.shutdownNow();
+    }
+
+    private enum Column {
+        NAME, CODE, CATEGORY, BUYING_PRICE, UNIT_PRICE, OPENING_STOCK, REORDER_LEVEL, DESCRIPTION;
+
+        /** Column for a header cell, ignoring case, spaces and punctuation. */
+        static Column forHeader(String header) {
+            return switch (header.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "")) {
+                case "name", "productname", "product" -> NAME;
+                case "code", "sku", "barcode" -> CODE;
+                case "category", "categoryname" -> CATEGORY;
+                case "buyingprice", "costprice", "cost" -> BUYING_PRICE;
+                case "unitprice", "sellingprice", "price" -> UNIT_PRICE;
+                case "openingstock", "quantity", "qty", "stock", "quantityinstock" -> OPENING_STOCK;
+                case "reorderlevel" -> REORDER_LEVEL;
+                case "description" -> DESCRIPTION;
+                default -> null;
+            };
+        }
+    }
+
+    private record ChunkResult(List<Product> products, int created) {
+    }
+
+    private record ProductRow(int rowNumber, String name, String code, String category, BigDecimal buyingPrice,
+            BigDecimal unitPrice, int openingStock, Integer reorderLevel, String description) {
+
+        /** Rows with the same key describe the same product. */
+        String key() {
+            return code != null ? "code:" + code : "name:" + name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** State of one import: header mapping, the pending chunk, category cache and counters. */
+    private class ImportRun {
+
+        private final User user;
+        private final Consumer<ImportProgress> progress;
+        private final BooleanSupplier cancelledCheck;
+
+        private Map<Column, Integer> columns;
+        private final List<ProductRow> chunk = new ArrayList<>();
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long created;
+        private long updated;
+        private long failed;
+        private boolean cancelled;
+
+        ImportRun(User user, Consumer<ImportProgress> progress, BooleanSupplier cancelledCheck) {
+            this.user = user;
+            this.progress = progress;
+            this.cancelledCheck = cancelledCheck;
+            for (Category category : categoryRepository.findAll()) {
+                categoryIds.putIfAbsent(categoryKey(category.getName()), category.getId());
+            }
+        }
+
+        void row(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            if (columns == null) {
+                readHeader(rowNumber, cells);
+                return;
+            }
+            rowsRead++;
+            try {
+                chunk.add(parse(rowNumber, cells));
+            } catch (IllegalArgumentException e) {
+                error(rowNumber, e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void readHeader(int rowNumber, List<String> cells) {
+            columns = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                Column column = Column.forHeader(cells.get(i));
+                if (column != null) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+            for (Column required : List.of(Column.NAME, Column.CATEGORY, Column.BUYING_PRICE, Column.UNIT_PRICE)) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("Header row " + rowNumber + " has no "
+                            + required.name().toLowerCase(Locale.ROOT).replace('_', ' ') + " column");
+                }
+            }
+        }
+
+        private ProductRow parse(int rowNumber, List<String> cells) {
+            String name = text(cells, Column.NAME);
+            if (name == null) {
+                throw new IllegalArgumentException("Name is empty");
+            }
+            String category = text(cells, Column.CATEGORY);
+            if (category == null) {
+                throw new IllegalArgumentException("Category is empty");
+            }
+            BigDecimal buyingPrice = decimal(cells, Column.BUYING_PRICE);
+            BigDecimal unitPrice = decimal(cells, Column.UNIT_PRICE);
+            if (buyingPrice == null || unitPrice == null) {
+                throw new IllegalArgumentException("Buying price and selling price are required");
+            }
+            BigDecimal openingStock = decimal(cells, Column.OPENING_STOCK);
+            BigDecimal reorderLevel = decimal(cells, Column.REORDER_LEVEL);
+            if (openingStock != null && openingStock.signum() < 0) {
+                throw new IllegalArgumentException("Opening stock cannot be negative");
+            }
+            return new ProductRow(rowNumber, name, ProductCodeIndex.normalize(text(cells, Column.CODE)), category,
+                    buyingPrice, unitPrice, openingStock != null ? wholeNumber(openingStock, Column.OPENING_STOCK) : 0,
+                    reorderLevel != null ? wholeNumber(reorderLevel, Column.REORDER_LEVEL) : null,
+                    text(cells, Column.DESCRIPTION));
+        }
+
+        private int wholeNumber(BigDecimal value, Column column) {
+            try {
+                return value.intValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Not a whole number in "
+                        + column.name().toLowerCase(Locale.ROOT).replace('_', ' ') + ": " + value);
+            }
+        }
+
+        private String text(List<String> cells, Column column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size() || cells.get(index).isBlank()) {
+                return null;
+            }
+            return cells.get(index).trim();
+        }
+
+        private BigDecimal decimal(List<String> cells, Column column) {
+            String value = text(cells, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value.replace(",", ""));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number in "
+                        + column.name().toLowerCase(Locale.ROOT).replace('_', ' ') + ": " + value);
+            }
+        }
+
+        /** Writes the pending chunk; if it fails as a whole, retries its rows one by one. */
+        void flush() {
+            if (cancelledCheck.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            if (!chunk.isEmpty()) {
+                try {
+                    write(chunk);
+                } catch (RuntimeException chunkFailure) {
+                    for (ProductRow row : chunk) {
+                        try {
+                            write(List.of(row));
+                        } catch (RuntimeException e) {
+                            error(row.rowNumber(), rootMessage(e));
+                        }
+                    }
+                }
+                chunk.clear();
+            }
+            progress.accept(progress());
+        }
+
+        private void write(List<ProductRow> rows) {
+            resolveCategories(rows);
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            ChunkResult written = tx.execute(status -> {
+                // Existing products, by code and, for rows without one, by name
+                Map<String, Product> products = new LinkedHashMap<>();
+                List<Long> ids = new ArrayList<>();
+                List<String> names = new ArrayList<>();
+                for (ProductRow row : rows) {
+                    Long id = row.code() != null ? codeIndex.find(row.code()) : null;
+                    if (id != null) {
+                        ids.add(id);
+                    } else if (row.code() == null) {
+                        names.add(row.name().toLowerCase(Locale.ROOT));
+                    }
+                }
+                Map<Long, Product> byId = new HashMap<>();
+                productRepository.findAllById(ids).forEach(p -> byId.put(p.getId(), p));
+                Map<String, Product> byName = new HashMap<>();
+                if (!names.isEmpty()) {
+                    productRepository.findByLowerNameIn(names)
+                            .forEach(p -> byName.putIfAbsent(p.getName().toLowerCase(Locale.ROOT), p));
+                }
+
+                // Later rows for the same product win, opening stock only for new products.
+                // Identity maps, as a new product's hash code changes once it gets an id.
+                List<Product> unique = new ArrayList<>();
+                Map<Product, ProductRow> openingStock = new IdentityHashMap<>();
+                Set<Product> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+                int createdHere = 0;
+                for (ProductRow row : rows) {
+                    Product product = products.get(row.key());
+                    if (product == null) {
+                        product = row.code() != null ? byId.get(codeIndex.find(row.code()))
+                                : byName.get(row.name().toLowerCase(Locale.ROOT));
+                    }
+                    if (product == null) {
+                        product = new Product();
+                        product.setQuantityInStock(0);
+                        openingStock.put(product, row);
+                        createdHere++;
+                    } else if (openingStock.containsKey(product)) {
+                        openingStock.put(product, row);
+                    }
+                    if (seen.add(product)) {
+                        unique.add(product);
+                    }
+                    products.put(row.key(), product);
+                    apply(row, product);
+                }
+
+                List<Product> result = productRepository.saveAll(unique);
+
+                // Detached, so StockService updates the copies in memory instead of reloading each one
+                entityManager.flush();
+                entityManager.clear();
+                List<StockService.StockLine> lines = new ArrayList<>();
+                openingStock.forEach((product, row) -> {
+                    if (row.openingStock() > 0) {
+                        lines.add(new StockService.StockLine(product, row.openingStock(), row.buyingPrice()));
+                    }
+                });
+                stockService.adjustStock(lines, TransactionType.PURCHASE, user, OPENING_STOCK_NOTE);
+                return new ChunkResult(result, createdHere);
+            });
+
+            // Committed: count and make the products findable
+            created += written.created();
+            updated += written.products().size() - written.created();
+            for (Product product : written.products()) {
+                searchIndex.put(product.getId(), product.getName());
+                codeIndex.put(product.getId(), product.getCode());
+            }
+        }
+
+        private void apply(ProductRow row, Product product) {
+            product.setName(row.name());
+            if (row.code() != null) {
+                product.setCode(row.code());
+            }
+            product.setCategory(categoryRepository.getReferenceById(categoryIds.get(categoryKey(row.category()))));
+            product.setBuyingPrice(row.buyingPrice());
+            product.setUnitPrice(row.unitPrice());
+            if (row.reorderLevel() != null) {
+                product.setReorderLevel(row.reorderLevel());
+            }
+            if (row.description() != null) {
+                product.setDescription(row.description());
+            }
+        }
+
+        /** Creates the categories the rows name that do not exist yet, in their own transaction. */
+        private void resolveCategories(List<ProductRow> rows) {
+            Map<String, String> missing = new LinkedHashMap<>();
+            for (ProductRow row : rows) {
+                String key = categoryKey(row.category());
+                if (!categoryIds.containsKey(key)) {
+                    missing.putIfAbsent(key, row.category());
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.executeWithoutResult(status -> missing.forEach((key, name) -> {
+                Category category = new Category();
+                category.setName(name);
+                categoryIds.put(key, categoryRepository.save(category).getId());
+            }));
+        }
+
+        void error(int rowNumber, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(rowNumber, message));
+            }
+        }
+
+        ImportProgress progress() {
+            return new ImportProgress(rowsRead, created, updated, failed);
+        }
+
+        ImportResult result() {
+            return new ImportResult(progress(), List.copyOf(errors), cancelled);
+        }
+    }
+
+    private static String categoryKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    public record ImportProgress(long rowsRead, long created, long updated, long failed) {
+    }
+
+    public record RowError(int rowNumber, String message) {
+    }
+
+    /** Totals, the first errors (up to lumobills.import.max-errors) and whether the import was cancelled. */
+    public record ImportResult(ImportProgress totals, List<RowError> errors, boolean cancelled) {
+    }
+}
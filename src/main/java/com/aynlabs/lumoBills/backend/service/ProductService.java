@@ -2,7 +2,13 @@ package com.aynlabs.lumoBills.backend.service;
 
 import com.aynlabs.lumoBills.backend.entity.Product;
 import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import com.aynlabs.lumoBills.backend.search.ProductCodeIndex;
+import com.aynlabs.lumoBills.backend.search.ProductSearchIndex;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -11,17 +17,61 @@ import org.springframework.stereotype.Service;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCodeIndex codeIndex;
+
+    /** Ids per findByIdIn call, so a broad filter never becomes one huge IN list. */
+    private static final int LOAD_CHUNK_SIZE = 500;
 
     public List<Product> findAll() {
         return productRepository.findAll();
     }
 
     public List<Product> findAll(String stringFilter) {
-        if (stringFilter == null || stringFilter.isEmpty()) {
+        if (ProductSearchIndex.isBlank(stringFilter)) {
             return productRepository.findAll();
         } else {
-            return productRepository.search(stringFilter);
+            return load(searchIndex.findContaining(stringFilter));
+        }
+    }
+
+    /**
+     * Ranked page of products matching the term, from the shared search index.
+     * Only the returned page is loaded from the database.
+     */
+    public List<Product> search(String term, int offset, int limit) {
+        return load(searchIndex.search(term, offset, limit));
+    }
+
+    /** The products with the given ids, in the order of the ids. */
+    private List<Product> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            products.addAll(
+                    productRepository.findByIdIn(ids.subList(from, Math.min(from + LOAD_CHUNK_SIZE, ids.size()))));
+        }
+        products.sort(Comparator.comparing(p -> rank.get(p.getId())));
+        return products;
+    }
+
+    /**
+     * Product with the given barcode or SKU, or null. The code is resolved in
+     * memory; only the primary key lookup goes to the database.
+     */
+    public Product findByCode(String code) {
+        Long id = codeIndex.find(code);
+        if (id == null) {
+            return null;
+        }
+        List<Product> found = productRepository.findByIdIn(List.of(id));
+        return found.isEmpty() ? null : found.get(0);
     }
 
     public long count() {
@@ -30,6 +80,8 @@ public class ProductService {
 
     public void delete(Product product) {
         productRepository.delete(product);
+        searchIndex.remove(product.getId());
+        codeIndex.remove(product.getId());
     }
 
     public void save(Product product) {
@@ -37,6 +89,13 @@ public class ProductService {
             System.err.println("Product is null. Are you sure you have connected your form to the application?");
             return;
         }
-        productRepository.save(product);
+        product.setCode(ProductCodeIndex.normalize(product.getCode()));
+        Long owner = codeIndex.find(product.getCode());
+        if (owner != null && !owner.equals(product.getId())) {
+            throw new IllegalArgumentException("Code " + product.getCode() + " is already used by another product");
+        }
+        Product saved = productRepository.save(product);
+        searchIndex.put(saved.getId(), saved.getName());
+        codeIndex.put(saved.getId(), saved.getCode());
     }
 }
@@ -1,12 +1,24 @@
 package com.aynlabs.lumoBills.backend.service;
 
+import com.aynlabs.lumoBills.backend.entity.Product;
 import com.aynlabs.lumoBills.backend.entity.Purchase;
+import com.aynlabs.lumoBills.backend.importer.SheetReader;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
 import com.aynlabs.lumoBills.backend.repository.PurchaseRepository;
+import com.aynlabs.lumoBills.backend.search.ProductCodeIndex;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 @Service
 @RequiredArgsConstructor
@@ -15,6 +27,20 @@ public class PurchaseService {
     private final StockService stockService;
     private final com.aynlabs.lumoBills.backend.security.SecurityService securityService;
     private final LedgerService ledgerService;
+    private final DailySummaryService dailySummaryService;
+    private final ProductRepository productRepository;
+    private final ProductCodeIndex codeIndex;
+    private final SheetReader sheetReader;
+
+    // A delivery note is parsed and recorded in one request and one transaction, so it gets
+    // a small limit of its own rather than the bulk import limit
+    @Value("${lumobills.purchase.max-document-size:2MB}")
+    private DataSize maxDocumentSize;
+
+    /** Largest delivery note file in bytes, for the upload component. */
+    public int getMaxDocumentSize() {
+        return (int) Math.min(Integer.MAX_VALUE, maxDocumentSize.toBytes());
+    }
 
     @org.springframework.transaction.annotation.Transactional
     public void save(Purchase purchase) {
@@ -47,7 +73,197 @@ public class PurchaseService {
             entry.setReferenceId(purchase.getId() != null ? purchase.getId().toString() : "PURCHASE");
             entry.setPaymentMode(com.aynlabs.lumoBills.backend.entity.Invoice.PaymentMode.CASH);
             ledgerService.recordEntry(entry);
+
+            dailySummaryService.record(purchase.getPurchaseDate().toLocalDate(),
+                    DailySummaryService.Delta.purchase(purchase.getTotal(), 1));
+        }
+    }
+
+    /**
+     * Records every line of a supplier document in one transaction: the
+     * purchases are inserted as a batch, stock goes through one batched
+     * adjustment, and the document gets a single expense ledger entry and a
+     * single daily summary delta.
+     */
+    @org.springframework.transaction.annotation.Transactional
+    public List<Purchase> saveDocument(PurchaseDocument document) {
+        if (document.lines().isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime purchaseDate = document.purchaseDate() != null ? document.purchaseDate() : LocalDateTime.now();
+        String seller = document.sellerName() != null ? document.sellerName() : "Vendor";
+
+        List<Purchase> purchases = new ArrayList<>(document.lines().size());
+        List<StockService.StockLine> stockLines = new ArrayList<>(document.lines().size());
+        BigDecimal documentTotal = BigDecimal.ZERO;
+        for (PurchaseLine line : document.lines()) {
+            Purchase purchase = new Purchase();
+            purchase.setProduct(line.product());
+            purchase.setSellerName(document.sellerName());
+            purchase.setQuantity(line.quantity());
+            purchase.setPrice(line.price());
+            purchase.setTotal(line.price().multiply(BigDecimal.valueOf(line.quantity())));
+            purchase.setPurchaseDate(purchaseDate);
+            purchases.add(purchase);
+            stockLines.add(new StockService.StockLine(line.product(), line.quantity(), line.price()));
+            documentTotal = documentTotal.add(purchase.getTotal());
+        }
+        purchaseRepository.saveAll(purchases);
+
+        com.aynlabs.lumoBills.backend.entity.User user = securityService.getAuthenticatedUser();
+        stockService.adjustStock(stockLines,
+                com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType.PURCHASE, user,
+                "Purchase from " + seller + (document.reference() != null ? " (" + document.reference() + ")" : ""));
+
+        // One expense entry for the whole document
+        com.aynlabs.lumoBills.backend.entity.LedgerEntry entry = new com.aynlabs.lumoBills.backend.entity.LedgerEntry();
+        entry.setTransactionDate(purchaseDate);
+        entry.setType(com.aynlabs.lumoBills.backend.entity.LedgerEntry.EntryType.EXPENSE);
+        entry.setCategory("Raw Material Purchase");
+        entry.setAmount(documentTotal);
+        entry.setDescription("Purchase: " + purchases.size() + " lines from " + seller);
+        entry.setReferenceId(document.reference() != null ? document.reference()
+                : purchases.get(0).getId().toString());
+        entry.setPaymentMode(com.aynlabs.lumoBills.backend.entity.Invoice.PaymentMode.CASH);
+        ledgerService.recordEntry(entry);
+
+        dailySummaryService.record(purchaseDate.toLocalDate(),
+                DailySummaryService.Delta.purchases(documentTotal, purchases.size()));
+        return purchases;
+    }
+
+    /**
+     * Reads a delivery note (columns: code or product name, quantity, price)
+     * and records it with {@link #saveDocument}. Nothing is recorded if any
+     * line is invalid; the errors are returned instead. The whole file is read
+     * in the caller's thread and transaction, which is why uploads are held to
+     * lumobills.purchase.max-document-size.
+     */
+    @org.springframework.transaction.annotation.Transactional
+    public DocumentImport importDocument(Path file, SheetReader.Format format, String sellerName,
+            String reference) throws IOException {
+        List<ProductImportService.RowError> errors = new ArrayList<>();
+        List<DocumentRow> rows = new ArrayList<>();
+        Map<String, Integer> columns = new HashMap<>();
+        sheetReader.read(file, format, (rowNumber, cells) -> {
+            if (cells.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            if (columns.isEmpty()) {
+                for (int i = 0; i < cells.size(); i++) {
+                    String header = documentColumn(cells.get(i));
+                    if (header != null) {
+                        columns.putIfAbsent(header, i);
+                    }
+                }
+                return;
+            }
+            try {
+                rows.add(documentRow(rowNumber, cells, columns));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ProductImportService.RowError(rowNumber, e.getMessage()));
+            }
+        });
+        if (!columns.containsKey("quantity") || !columns.containsKey("price")
+                || !(columns.containsKey("code") || columns.containsKey("name"))) {
+            return new DocumentImport(List.of(), List.of(new ProductImportService.RowError(1,
+                    "Header must have quantity, price and a code or product name column")));
+        }
+
+        // Resolve all products with two queries
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (DocumentRow row : rows) {
+            Long id = row.code() != null ? codeIndex.find(row.code()) : null;
+            if (id != null) {
+                ids.add(id);
+            } else if (row.name() != null) {
+                names.add(row.name().toLowerCase(Locale.ROOT));
+            }
         }
+        Map<Long, Product> byId = new HashMap<>();
+        productRepository.findByIdIn(ids).forEach(p -> byId.put(p.getId(), p));
+        Map<String, Product> byName = new HashMap<>();
+        if (!names.isEmpty()) {
+            productRepository.findByLowerNameIn(names)
+                    .forEach(p -> byName.putIfAbsent(p.getName().toLowerCase(Locale.ROOT), p));
+        }
+
+        List<PurchaseLine> lines = new ArrayList<>(rows.size());
+        for (DocumentRow row : rows) {
+            Product product = row.code() != null ? byId.get(codeIndex.find(row.code())) : null;
+            if (product == null && row.name() != null) {
+                product = byName.get(row.name().toLowerCase(Locale.ROOT));
+            }
+            if (product == null) {
+                errors.add(new ProductImportService.RowError(row.rowNumber(), "Unknown product "
+                        + (row.code() != null ? row.code() : row.name())));
+            } else {
+                lines.add(new PurchaseLine(product, row.quantity(), row.price()));
+            }
+        }
+        if (!errors.isEmpty()) {
+            return new DocumentImport(List.of(), errors);
+        }
+        return new DocumentImport(saveDocument(new PurchaseDocument(sellerName, reference, null, lines)),
+                List.of());
+    }
+
+    private static String documentColumn(String header) {
+        return switch (header.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "")) {
+            case "code", "sku", "barcode" -> "code";
+            case "name", "product", "productname" -> "name";
+            case "quantity", "qty" -> "quantity";
+            case "price", "unitprice", "cost", "buyingprice" -> "price";
+            default -> null;
+        };
+    }
+
+    private static DocumentRow documentRow(int rowNumber, List<String> cells, Map<String, Integer> columns) {
+        String code = ProductCodeIndex.normalize(cell(cells, columns.get("code")));
+        String name = cell(cells, columns.get("name"));
+        if (code == null && name == null) {
+            throw new IllegalArgumentException("No product code or name");
+        }
+        String quantityText = cell(cells, columns.get("quantity"));
+        String priceText = cell(cells, columns.get("price"));
+        if (quantityText == null || priceText == null) {
+            throw new IllegalArgumentException("Quantity and price are required");
+        }
+        int quantity;
+        BigDecimal price;
+        try {
+            quantity = new BigDecimal(quantityText.replace(",", "")).intValueExact();
+            price = new BigDecimal(priceText.replace(",", ""));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Quantity must be a whole number and price a number");
+        }
+        if (quantity <= 0 || price.signum() < 0) {
+            throw new IllegalArgumentException("Quantity must be positive and price not negative");
+        }
+        return new DocumentRow(rowNumber, code, name, quantity, price);
+    }
+
+    private static String cell(List<String> cells, Integer index) {
+        if (index == null || index >= cells.size() || cells.get(index).isBlank()) {
+            return null;
+        }
+        return cells.get(index).trim();
+    }
+
+    private record DocumentRow(int rowNumber, String code, String name, int quantity, BigDecimal price) {
+    }
+
+    /** One supplier delivery note or invoice; the reference is the supplier's document number, if any. */
+    public record PurchaseDocument(String sellerName, String reference, LocalDateTime purchaseDate,
+            List<PurchaseLine> lines) {
+    }
+
+    public record PurchaseLine(Product product, int quantity, BigDecimal price) {
+    }
+
+    /** The recorded purchases, or the row errors when nothing was recorded. */
+    public record DocumentImport(List<Purchase> purchases, List<ProductImportService.RowError> errors) {
     }
 
     public List<Purchase> findAll() {
@@ -87,6 +303,9 @@ public class PurchaseService {
         entry.setPaymentMode(com.aynlabs.lumoBills.backend.entity.Invoice.PaymentMode.CASH);
         ledgerService.recordEntry(entry);
 
+        dailySummaryService.record(purchase.getPurchaseDate().toLocalDate(),
+                DailySummaryService.Delta.purchase(purchase.getTotal(), -1));
+
         purchaseRepository.delete(purchase);
     }
 
@@ -125,6 +344,15 @@ public class PurchaseService {
                 entry.setPaymentMode(com.aynlabs.lumoBills.backend.entity.Invoice.PaymentMode.CASH);
                 ledgerService.recordEntry(entry);
             }
+
+            if (totalDiff.compareTo(BigDecimal.ZERO) != 0
+                    || !old.getPurchaseDate().toLocalDate().equals(updatedPurchase.getPurchaseDate().toLocalDate())) {
+                // Move the purchase out of its old day and into its (possibly new) day
+                dailySummaryService.record(old.getPurchaseDate().toLocalDate(),
+                        DailySummaryService.Delta.purchase(old.getTotal(), -1));
+                dailySummaryService.record(updatedPurchase.getPurchaseDate().toLocalDate(),
+                        DailySummaryService.Delta.purchase(updatedPurchase.getTotal(), 1));
+            }
         }
         purchaseRepository.save(updatedPurchase);
     }
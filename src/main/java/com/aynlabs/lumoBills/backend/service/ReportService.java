@@ -5,27 +5,44 @@ import com.aynlabs.lumoBills.backend.dto.StockReportDTO;
 import com.aynlabs.lumoBills.backend.entity.Invoice;
 import com.aynlabs.lumoBills.backend.entity.StockHistory;
 import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.export.ExcelExporter;
+import com.aynlabs.lumoBills.backend.export.ExportColumn;
+import com.aynlabs.lumoBills.backend.export.ReportColumns;
+import com.aynlabs.lumoBills.backend.export.TextExporter;
 import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
 import com.aynlabs.lumoBills.backend.repository.StockHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.aynlabs.lumoBills.backend.dto.ProductProfitDTO;
 import java.math.BigDecimal;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Field;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +52,37 @@ public class ReportService {
     private final InvoiceRepository invoiceRepository;
     private final StockHistoryRepository stockHistoryRepository;
     private final com.aynlabs.lumoBills.backend.repository.ProductRepository productRepository;
+    private final ReportTemplateRegistry templateRegistry;
+    private final ExcelExporter excelExporter;
+    private final TextExporter textExporter;
+    private final EntityManager entityManager;
+
+    private static final int EXPORT_CHUNK_SIZE = 100;
+
+    private static final String SALES_EXPORT_QUERY =
+            "select new com.aynlabs.lumoBills.backend.dto.SalesReportDTO(cast(i.id as String), i.date, " +
+            "case when c.id is null then 'Unknown' " +
+            "else concat(c.firstName, case when c.lastName is null then '' else concat(' ', c.lastName) end) end, " +
+            "i.subTotal, i.taxAmount, i.discountAmount, i.totalAmount) " +
+            "from Invoice i left join i.customer c " +
+            "where i.date between :start and :end order by i.date";
+
+    private static final String STOCK_EXPORT_QUERY =
+            "select new com.aynlabs.lumoBills.backend.dto.StockReportDTO(s.timestamp, coalesce(p.name, 'Unknown'), " +
+            "s.type, s.changeAmount, s.purchasePrice, s.totalAmount, coalesce(u.name, 'System'), s.notes) " +
+            "from StockHistory s left join s.product p left join s.conductedBy u " +
+            "where s.timestamp between :start and :end and (:type is null or s.type = :type) " +
+            "order by s.timestamp";
+
+    // JDBC fetch size of the streaming exports only, so no driver setting has to change for every
+    // other query. MySQL Connector/J streams row by row when it is Integer.MIN_VALUE.
+    @Value("${lumobills.reports.export-fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${lumobills.reports.export-threads:4}")
+    private int exportThreads;
+
+    private ExecutorService pdfExecutor;
 
     public List<SalesReportDTO> getSalesData(LocalDateTime start, LocalDateTime end) {
         return invoiceRepository.findByDateBetween(start, end).stream()
@@ -88,54 +136,135 @@ public class ReportService {
                 .collect(Collectors.toList());
     }
 
-    public byte[] exportToExcel(List<?> data, String[] headers, String[] fields) throws IOException {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Report");
-            Row headerRow = sheet.createRow(0);
+    public <T> void exportToExcel(List<T> data, List<ExportColumn<T>> columns, OutputStream out)
+            throws IOException {
+        excelExporter.write("Report", columns, data, out);
+    }
 
-            for (int i = 0; i < headers.length; i++) {
-                headerRow.createCell(i).setCellValue(headers[i]);
-            }
+    public <T> void exportToText(List<T> data, List<ExportColumn<T>> columns, TextExporter.Format format,
+            boolean gzip, OutputStream out) throws IOException {
+        textExporter.write(format, columns, data.iterator(), out, gzip);
+    }
 
-            int rowIdx = 1;
-            for (Object item : data) {
-                Row row = sheet.createRow(rowIdx++);
-                for (int i = 0; i < fields.length; i++) {
-                    try {
-                        Field field = item.getClass().getDeclaredField(fields[i]);
-                        field.setAccessible(true);
-                        Object value = field.get(item);
-                        if (value != null) {
-                            row.createCell(i).setCellValue(value.toString());
-                        }
-                    } catch (Exception e) {
-                        row.createCell(i).setCellValue("");
-                    }
-                }
-            }
+    /**
+     * Streams the sales report for the range straight from the database into
+     * the output. Rows are mapped to the export columns as they arrive, so no
+     * result list is ever built.
+     */
+    @Transactional(readOnly = true)
+    public void exportSales(LocalDateTime start, LocalDateTime end, TextExporter.Format format, boolean gzip,
+            OutputStream out) throws IOException {
+        try (Stream<SalesReportDTO> rows = entityManager.createQuery(SALES_EXPORT_QUERY, SalesReportDTO.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .getResultStream()) {
+            textExporter.write(format, ReportColumns.SALES, rows.iterator(), out, gzip);
+        }
+    }
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return out.toByteArray();
+    /** Streaming counterpart of {@link #getStockHistoryData}, see {@link #exportSales}. */
+    @Transactional(readOnly = true)
+    public void exportStockHistory(LocalDateTime start, LocalDateTime end, TransactionType type,
+            TextExporter.Format format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<StockReportDTO> rows = entityManager.createQuery(STOCK_EXPORT_QUERY, StockReportDTO.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("type", type)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .getResultStream()) {
+            textExporter.write(format,
+                    type == TransactionType.PURCHASE ? ReportColumns.STOCK_REFILL : ReportColumns.STOCK_HISTORY,
+                    rows.iterator(), out, gzip);
         }
     }
 
     public byte[] generateInvoicePdf(Invoice invoice) throws Exception {
-        InputStream template = getClass().getResourceAsStream("/reports/invoice.jrxml");
-        if (template == null) {
-            throw new RuntimeException("Invoice template not found!");
+        return fillInvoicePdf(templateRegistry.getReport("invoice"), invoice, getCompanyParameters());
+    }
+
+    /**
+     * Streams the PDFs of all invoices matching the filter into a ZIP archive.
+     * Fill and export run on the shared export pool with a bounded number of
+     * invoices in flight, and each PDF is written as soon as it is ready, so
+     * only a handful of documents are held in memory at any time.
+     * <p>
+     * A cancelled export throws a CancellationException instead of finishing
+     * the archive, so the download fails rather than look complete.
+     */
+    public void exportInvoicePdfs(LocalDateTime start, LocalDateTime end, Invoice.InvoiceStatus status,
+            OutputStream out, BiConsumer<Integer, Integer> progress, BooleanSupplier cancelled)
+            throws Exception {
+        List<Long> ids = invoiceRepository.findIdsForExport(start, end, status);
+        JasperReport jasperReport = templateRegistry.getReport("invoice");
+        Map<String, Object> companyParameters = getCompanyParameters();
+
+        ExecutorCompletionService<InvoicePdf> completion = new ExecutorCompletionService<>(pdfExecutor);
+        int maxInFlight = exportThreads * 2;
+        int inFlight = 0;
+        int done = 0;
+        List<String> errors = new ArrayList<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        progress.accept(0, ids.size());
+        for (int from = 0; from < ids.size() && !cancelled.getAsBoolean(); from += EXPORT_CHUNK_SIZE) {
+            List<Invoice> chunk = invoiceRepository
+                    .findDetailByIdIn(ids.subList(from, Math.min(from + EXPORT_CHUNK_SIZE, ids.size())));
+            for (Invoice invoice : chunk) {
+                if (cancelled.getAsBoolean()) {
+                    break;
+                }
+                if (inFlight == maxInFlight) {
+                    done += writeNext(completion, zip, errors);
+                    inFlight--;
+                    progress.accept(done, ids.size());
+                }
+                completion.submit(() -> new InvoicePdf(invoice,
+                        fillInvoicePdf(jasperReport, invoice, companyParameters)));
+                inFlight++;
+            }
+        }
+        if (cancelled.getAsBoolean()) {
+            // Wait for the fills already started so none outlives the export, but write nothing more
+            while (inFlight > 0) {
+                completion.take();
+                inFlight--;
+            }
+            throw new CancellationException("Invoice export cancelled after " + done + " of " + ids.size()
+                    + " invoices");
+        }
+        while (inFlight > 0) {
+            done += writeNext(completion, zip, errors);
+            inFlight--;
+            progress.accept(done, ids.size());
         }
 
-        JasperReport jasperReport = JasperCompileManager.compileReport(template);
+        if (!errors.isEmpty()) {
+            zip.putNextEntry(new ZipEntry("errors.txt"));
+            zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
 
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("INVOICE_ID", invoice.getId());
-        parameters.put("CUSTOMER_NAME", invoice.getCustomer().getFullName());
-        parameters.put("TOTAL_AMOUNT", invoice.getTotalAmount());
-        parameters.put("SUBTOTAL", invoice.getSubTotal());
-        parameters.put("TAX", invoice.getTaxAmount());
-        parameters.put("DISCOUNT", invoice.getDiscountAmount());
+    private int writeNext(ExecutorCompletionService<InvoicePdf> completion, ZipOutputStream zip,
+            List<String> errors) throws InterruptedException, IOException {
+        try {
+            InvoicePdf pdf = completion.take().get();
+            Invoice invoice = pdf.invoice();
+            zip.putNextEntry(new ZipEntry("invoice_"
+                    + (invoice.getInvoiceNumber() != null ? invoice.getInvoiceNumber() : invoice.getId()) + ".pdf"));
+            zip.write(pdf.content());
+            zip.closeEntry();
+            return 1;
+        } catch (ExecutionException e) {
+            errors.add("Failed to render invoice: " + e.getCause().getMessage());
+            return 1;
+        }
+    }
 
+    private Map<String, Object> getCompanyParameters() {
+        Map<String, Object> parameters = new HashMap<>();
         parameters.put("COMPANY_NAME", settingService.getValue("COMPANY_NAME", "LumoBills Corp"));
         parameters.put("COMPANY_ADDRESS", settingService.getValue("COMPANY_ADDRESS", "123 Business St"));
         parameters.put("INVOICE_TERMS", settingService.getValue("INVOICE_TERMS", "Payment due within 30 days"));
@@ -143,10 +272,35 @@ public class ReportService {
         parameters.put("GST_NO", settingService.getValue("GST_NO", ""));
         parameters.put("COMPANY_PHONE", settingService.getValue("COMPANY_PHONE", ""));
         parameters.put("COMPANY_EMAIL", settingService.getValue("COMPANY_EMAIL", ""));
+        return parameters;
+    }
+
+    private byte[] fillInvoicePdf(JasperReport jasperReport, Invoice invoice, Map<String, Object> companyParameters)
+            throws JRException {
+        Map<String, Object> parameters = new HashMap<>(companyParameters);
+        parameters.put("INVOICE_ID", invoice.getId());
+        parameters.put("CUSTOMER_NAME", invoice.getCustomer().getFullName());
+        parameters.put("TOTAL_AMOUNT", invoice.getTotalAmount());
+        parameters.put("SUBTOTAL", invoice.getSubTotal());
+        parameters.put("TAX", invoice.getTaxAmount());
+        parameters.put("DISCOUNT", invoice.getDiscountAmount());
 
         JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(invoice.getItems());
 
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
         return JasperExportManager.exportReportToPdf(jasperPrint);
     }
+
+    @PostConstruct
+    void startExportPool() {
+        pdfExecutor = Executors.newFixedThreadPool(exportThreads);
+    }
+
+    @PreDestroy
+    void stopExportPool() {
+        pdfExecutor.shutdownNow();
+    }
+
+    private record InvoicePdf(Invoice invoice, byte[] content) {
+    }
 }
@@ -0,0 +1,126 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps compiled JasperReport templates in memory, keyed by template name and
+ * the checksum of the source they were built from.
+ * <p>
+ * A precompiled {@code /reports/<name>.jasper} on the classpath is preferred
+ * over compiling {@code /reports/<name>.jrxml}. With hot reload enabled the
+ * checksum is verified on every lookup and a changed template is rebuilt.
+ */
+@Component
+public class ReportTemplateRegistry {
+
+    private static final String TEMPLATE_PATH = "/reports/";
+
+    private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Value("${lumobills.reports.hot-reload:false}")
+    private boolean hotReload;
+
+    @Value("${lumobills.reports.precompile:invoice}")
+    private List<String> precompile;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompileTemplates() {
+        for (String name : precompile) {
+            try {
+                getReport(name);
+            } catch (Exception e) {
+                System.err.println("Failed to precompile report template '" + name + "': " + e.getMessage());
+            }
+        }
+    }
+
+    public JasperReport getReport(String name) throws JRException {
+        CompiledTemplate cached = templates.get(name);
+        if (cached != null && !hotReload) {
+            hits.incrementAndGet();
+            return cached.report();
+        }
+
+        TemplateSource source = readSource(name);
+        if (cached != null && cached.checksum() == source.checksum()) {
+            hits.incrementAndGet();
+            return cached.report();
+        }
+
+        // compute() serialises concurrent first requests for the same template
+        CompiledTemplate compiled = templates.compute(name, (key, current) -> {
+            if (current != null && current.checksum() == source.checksum()) {
+                return current;
+            }
+            misses.incrementAndGet();
+            return new CompiledTemplate(source.checksum(), build(key, source));
+        });
+        return compiled.report();
+    }
+
+    public void evict(String name) {
+        templates.remove(name);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private JasperReport build(String name, TemplateSource source) {
+        try {
+            if (source.precompiled()) {
+                return (JasperReport) JRLoader.loadObject(new ByteArrayInputStream(source.content()));
+            }
+            return JasperCompileManager.compileReport(new ByteArrayInputStream(source.content()));
+        } catch (JRException e) {
+            throw new IllegalStateException("Unable to compile report template '" + name + "'", e);
+        }
+    }
+
+    private TemplateSource readSource(String name) throws JRException {
+        boolean precompiled = true;
+        InputStream in = getClass().getResourceAsStream(TEMPLATE_PATH + name + ".jasper");
+        if (in == null) {
+            precompiled = false;
+            in = getClass().getResourceAsStream(TEMPLATE_PATH + name + ".jrxml");
+        }
+        if (in == null) {
+            throw new JRException("Report template '" + name + "' not found!");
+        }
+        try (InputStream template = in) {
+            byte[] content = template.readAllBytes();
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            return new TemplateSource(content, crc.getValue(), precompiled);
+        } catch (IOException e) {
+            throw new JRException("Unable to read report template '" + name + "'", e);
+        }
+    }
+
+    private record TemplateSource(byte[] content, long checksum, boolean precompiled) {
+    }
+
+    private record CompiledTemplate(long checksum, JasperReport report) {
+    }
+}
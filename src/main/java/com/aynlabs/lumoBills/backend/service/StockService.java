@@ -4,11 +4,19 @@ import com.aynlabs.lumoBills.backend.entity.Product;
 import com.aynlabs.lumoBills.backend.entity.StockHistory;
 import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
 import com.aynlabs.lumoBills.backend.entity.User;
+import com.aynlabs.lumoBills.backend.event.StockChangedEvent;
 import com.aynlabs.lumoBills.backend.repository.ProductRepository;
 import com.aynlabs.lumoBills.backend.repository.StockHistoryRepository;
+import jakarta.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +26,9 @@ public class StockService {
 
     private final StockHistoryRepository stockHistoryRepository;
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void adjustStock(Product product, int amount, TransactionType type, User user, String notes) {
@@ -27,20 +38,44 @@ public class StockService {
     @Transactional
     public void adjustStock(Product product, int amount, java.math.BigDecimal purchasePrice, TransactionType type,
             User user, String notes) {
-        // Update product stock
-        int currentStock = product.getQuantityInStock() != null ? product.getQuantityInStock() : 0;
-        product.setQuantityInStock(currentStock + amount);
+        if (!tryAdjustStock(product.getId(), amount, purchasePrice, type, user, notes)) {
+            throw new IllegalStateException("Insufficient stock for " + product.getName());
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(new StockChangedEvent.StockMovement(
+                product.getId(), product.getName(), amount, type, LocalDateTime.now()))));
+
+        // Bring the caller's copy in line with the row we just updated
+        if (entityManager.contains(product)) {
+            entityManager.refresh(product);
+        } else {
+            int currentStock = product.getQuantityInStock() != null ? product.getQuantityInStock() : 0;
+            product.setQuantityInStock(currentStock + amount);
+            if (type == TransactionType.PURCHASE && purchasePrice != null) {
+                product.setBuyingPrice(purchasePrice);
+            }
+        }
+    }
+
+    /**
+     * Applies the stock change as one guarded update in the database, without
+     * loading the product. Returns false, and changes nothing, when a decrement
+     * would take the stock below zero.
+     */
+    @Transactional
+    public boolean tryAdjustStock(Long productId, int amount, java.math.BigDecimal purchasePrice,
+            TransactionType type, User user, String notes) {
+        if (productRepository.applyStockDelta(productId, amount) == 0) {
+            return false;
+        }
 
         // Update product's last buying price if it's a purchase
         if (type == TransactionType.PURCHASE && purchasePrice != null) {
-            product.setBuyingPrice(purchasePrice);
+            productRepository.updateBuyingPrice(productId, purchasePrice);
         }
 
-        productRepository.save(product);
-
         // Record history
         StockHistory history = new StockHistory();
-        history.setProduct(product);
+        history.setProduct(productRepository.getReferenceById(productId));
         history.setChangeAmount(amount);
         history.setPurchasePrice(purchasePrice);
 
@@ -54,13 +89,98 @@ public class StockService {
         history.setNotes(notes);
 
         stockHistoryRepository.save(history);
+        return true;
+    }
+
+    /**
+     * Applies all lines of one document (invoice, cancellation, purchase) at
+     * once: the per-product deltas go out as one JDBC batch of guarded
+     * updates and the history rows are saved together. Throws
+     * IllegalStateException if any product would go below zero, in which case
+     * the surrounding transaction rolls back.
+     */
+    @Transactional
+    public void adjustStock(List<StockLine> lines, TransactionType type, User user, String notes) {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        // One delta per product, in id order so concurrent documents lock rows in the same order
+        Map<Long, Integer> deltas = new TreeMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, java.math.BigDecimal> buyingPrices = new TreeMap<>();
+        for (StockLine line : lines) {
+            Long id = line.product().getId();
+            deltas.merge(id, line.amount(), Integer::sum);
+            products.putIfAbsent(id, line.product());
+            if (type == TransactionType.PURCHASE && line.purchasePrice() != null) {
+                buyingPrices.put(id, line.purchasePrice());
+            }
+        }
+
+        // Pending JPA changes must reach the database before the JDBC batch runs
+        entityManager.flush();
+
+        List<Object[]> stockArgs = new ArrayList<>();
+        deltas.forEach((id, delta) -> stockArgs.add(new Object[] { delta, id, delta, delta }));
+        int[] updated = jdbcTemplate.batchUpdate(
+                "update product set quantity_in_stock = quantity_in_stock + ?, version = version + 1 "
+                        + "where id = ? and (? >= 0 or quantity_in_stock + ? >= 0)",
+                stockArgs);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Product product = products.get((Long) stockArgs.get(i)[1]);
+                throw new IllegalStateException("Insufficient stock for " + product.getName());
+            }
+        }
+
+        if (!buyingPrices.isEmpty()) {
+            List<Object[]> priceArgs = new ArrayList<>();
+            buyingPrices.forEach((id, price) -> priceArgs.add(new Object[] { price, id }));
+            jdbcTemplate.batchUpdate("update product set buying_price = ? where id = ?", priceArgs);
+        }
+
+        // Record history
+        LocalDateTime now = LocalDateTime.now();
+        List<StockHistory> histories = new ArrayList<>(lines.size());
+        for (StockLine line : lines) {
+            StockHistory history = new StockHistory();
+            history.setProduct(productRepository.getReferenceById(line.product().getId()));
+            history.setChangeAmount(line.amount());
+            history.setPurchasePrice(line.purchasePrice());
+            if (line.purchasePrice() != null) {
+                history.setTotalAmount(
+                        line.purchasePrice().multiply(java.math.BigDecimal.valueOf(Math.abs(line.amount()))));
+            }
+            history.setType(type);
+            history.setTimestamp(now);
+            history.setConductedBy(user);
+            history.setNotes(notes);
+            histories.add(history);
+        }
+        stockHistoryRepository.saveAll(histories);
+        eventPublisher.publishEvent(new StockChangedEvent(lines.stream()
+                .map(line -> new StockChangedEvent.StockMovement(line.product().getId(), line.product().getName(),
+                        line.amount(), type, now))
+                .toList()));
+
+        // Bring the callers' copies in line with the rows we just updated
+        products.forEach((id, product) -> {
+            if (entityManager.contains(product)) {
+                entityManager.refresh(product);
+            } else {
+                int currentStock = product.getQuantityInStock() != null ? product.getQuantityInStock() : 0;
+                product.setQuantityInStock(currentStock + deltas.get(id));
+                if (buyingPrices.containsKey(id)) {
+                    product.setBuyingPrice(buyingPrices.get(id));
+                }
+            }
+        });
     }
 
     public List<StockHistory> findRecentActivity(int limit) {
-        return stockHistoryRepository.findAll(org.springframework.data.domain.PageRequest.of(0, limit,
-                org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC,
-                        "timestamp")))
-                .getContent();
+        return stockHistoryRepository
+                .findAllByOrderByTimestampDesc(org.springframework.data.domain.PageRequest.of(0, limit));
     }
 
     public java.math.BigDecimal getTotalPurchaseAmount() {
@@ -72,4 +192,11 @@ public class StockService {
     public java.util.List<StockHistory> findAll() {
         return stockHistoryRepository.findAll();
     }
+
+    public record StockLine(Product product, int amount, java.math.BigDecimal purchasePrice) {
+
+        public StockLine(Product product, int amount) {
+            this(product, amount, null);
+        }
+    }
 }
@@ -2,20 +2,36 @@ package com.aynlabs.lumoBills.backend.service;
 
 import com.aynlabs.lumoBills.backend.entity.SystemSetting;
 import com.aynlabs.lumoBills.backend.repository.SystemSettingRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Settings are read from an immutable in-memory map, so getValue never
+ * queries the database. setValue replaces the map with an updated copy once
+ * its transaction commits, and a poll of the table's change marker picks up
+ * changes made on other nodes.
+ */
 @Service
 @RequiredArgsConstructor
 public class SystemSettingService {
 
     private final SystemSettingRepository repository;
 
+    private volatile Map<String, String> settings = Map.of();
+    private volatile String loadedVersion;
+
     public String getValue(String key, String defaultValue) {
-        return repository.findBySettingKey(key)
-                .map(SystemSetting::getSettingValue)
-                .orElse(defaultValue);
+        String value = settings.get(key);
+        return value != null ? value : defaultValue;
     }
 
     @Transactional
@@ -25,5 +41,55 @@ public class SystemSettingService {
         setting.setSettingKey(key);
         setting.setSettingValue(value);
         repository.save(setting);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(key, value);
+                }
+            });
+        } else {
+            put(key, value);
+        }
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        // Version first: a change racing with the load shows up as a new version on the next poll
+        String version = readVersion();
+        Map<String, String> loaded = new HashMap<>();
+        for (SystemSetting setting : repository.findAll()) {
+            if (setting.getSettingValue() != null) {
+                loaded.put(setting.getSettingKey(), setting.getSettingValue());
+            }
+        }
+        settings = Collections.unmodifiableMap(loaded);
+        loadedVersion = version;
+    }
+
+    @Scheduled(fixedDelayString = "${lumobills.settings.poll-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (!readVersion().equals(loadedVersion)) {
+            reload();
+        }
+    }
+
+    private synchronized void put(String key, String value) {
+        Map<String, String> updated = new HashMap<>(settings);
+        if (value != null) {
+            updated.put(key, value);
+        } else {
+            updated.remove(key);
+        }
+        settings = Collections.unmodifiableMap(updated);
+        // A later change elsewhere could bring the marker back to the loaded one, so reload on the next poll
+        loadedVersion = null;
+    }
+
+    private String readVersion() {
+        List<Object[]> rows = repository.findChangeVersion();
+        Object[] row = rows.get(0);
+        return row[0] + ":" + row[1] + ":" + row[2];
     }
 }
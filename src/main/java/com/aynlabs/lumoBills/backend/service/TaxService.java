@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class TaxService {
     private final TaxRepository repository;
+    private final PricingEngine pricingEngine;
 
     public List<Tax> findAll() {
         return repository.findAll();
@@ -21,9 +22,11 @@ public class TaxService {
 
     public void save(Tax tax) {
         repository.save(tax);
+        pricingEngine.refresh();
     }
 
     public void delete(Tax tax) {
         repository.delete(tax);
+        pricingEngine.refresh();
     }
 }
@@ -0,0 +1,68 @@
+package com.aynlabs.lumoBills.backend.util;
+
+import com.aynlabs.lumoBills.backend.entity.AbstractEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the shared entity_seq past the highest id already in use.
+ * <p>
+ * Tables created while ids came from IDENTITY columns already hold rows, and
+ * a freshly created sequence would start at 1 and collide with them. This
+ * runs once the schema is in place and before the web server accepts
+ * requests. It only ever moves the sequence forward, so it does nothing on
+ * an already migrated database.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntitySequenceInitializer {
+
+    private static final String SEQUENCE = "entity_seq";
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequence() {
+        long maxId = 0;
+        for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
+            if (AbstractEntity.class.isAssignableFrom(entity.getJavaType())) {
+                Long max = entityManager.createQuery("select max(e.id) from " + entity.getName() + " e", Long.class)
+                        .getSingleResult();
+                if (max != null) {
+                    maxId = Math.max(maxId, max);
+                }
+            }
+        }
+        if (maxId == 0) {
+            return;
+        }
+
+        // Leave a whole block of headroom: the pooled optimizer may treat the value as the top of its block
+        long target = maxId + ALLOCATION_SIZE + 1;
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+
+        if ("H2".equals(database)) {
+            Long next = jdbcTemplate.queryForObject("select base_value from information_schema.sequences "
+                    + "where upper(sequence_name) = upper(?)", Long.class, SEQUENCE);
+            if (next != null && next < target) {
+                jdbcTemplate.execute("alter sequence " + SEQUENCE + " restart with " + target);
+                System.out.println("Moved " + SEQUENCE + " from " + next + " to " + target);
+            }
+        } else {
+            // MySQL has no sequences; Hibernate keeps the next value in a one-row table
+            int updated = jdbcTemplate.update("update " + SEQUENCE + " set next_val = ? where next_val < ?",
+                    target, target);
+            if (updated > 0) {
+                System.out.println("Moved " + SEQUENCE + " to " + target);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.aynlabs.lumoBills.ui.views.admin;
 
 import com.aynlabs.lumoBills.backend.entity.Role;
 import com.aynlabs.lumoBills.backend.entity.User;
+import com.aynlabs.lumoBills.backend.service.OutboxService;
 import com.aynlabs.lumoBills.backend.service.SystemSettingService;
 import com.aynlabs.lumoBills.backend.service.UserService;
 import com.aynlabs.lumoBills.ui.MainLayout;
@@ -13,6 +14,7 @@ import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
@@ -37,6 +39,7 @@ public class AdminView extends VerticalLayout {
     private final SystemSettingService settingService;
     private final com.aynlabs.lumoBills.backend.service.TaxService taxService;
     private final com.aynlabs.lumoBills.backend.service.DiscountService discountService;
+    private final OutboxService outboxService;
 
     // User Grid
     private Grid<User> userGrid = new Grid<>(User.class);
@@ -61,11 +64,12 @@ public class AdminView extends VerticalLayout {
 
     public AdminView(UserService userService, SystemSettingService settingService,
             com.aynlabs.lumoBills.backend.service.TaxService taxService,
-            com.aynlabs.lumoBills.backend.service.DiscountService discountService) {
+            com.aynlabs.lumoBills.backend.service.DiscountService discountService, OutboxService outboxService) {
         this.userService = userService;
         this.settingService = settingService;
         this.taxService = taxService;
         this.discountService = discountService;
+        this.outboxService = outboxService;
 
         addClassName("admin-view");
         setSizeFull();
@@ -113,10 +117,30 @@ public class AdminView extends VerticalLayout {
         });
         saveMaster.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
 
-        layout.add(currencySelect, saveMaster);
+        layout.add(currencySelect, saveMaster, createOutboxSection());
         return layout;
     }
 
+    /**
+     * Ledger, balance and summary updates that ran out of attempts in the
+     * background, with a button to queue them again once the cause is fixed.
+     */
+    private VerticalLayout createOutboxSection() {
+        Span failed = new Span();
+        Runnable showFailed = () -> failed.setText("Failed background updates: " + outboxService.countFailed());
+        showFailed.run();
+
+        Button retry = new Button("Retry Failed Updates", e -> {
+            int requeued = outboxService.replayFailed();
+            showFailed.run();
+            Notification.show(requeued + " update(s) queued again");
+        });
+
+        VerticalLayout section = new VerticalLayout(new H3("Background Updates"), failed, retry);
+        section.setPadding(false);
+        return section;
+    }
+
     private VerticalLayout createTaxDiscountLayout() {
         VerticalLayout layout = new VerticalLayout();
         layout.setSizeFull();
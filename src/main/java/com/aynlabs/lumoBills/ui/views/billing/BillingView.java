@@ -7,16 +7,16 @@ import com.aynlabs.lumoBills.backend.entity.Product;
 import com.aynlabs.lumoBills.backend.entity.User;
 import com.aynlabs.lumoBills.backend.security.SecurityService;
 import com.aynlabs.lumoBills.backend.service.CustomerService;
-import com.aynlabs.lumoBills.backend.service.DiscountService;
 import com.aynlabs.lumoBills.backend.service.InvoiceService;
+import com.aynlabs.lumoBills.backend.service.PricingEngine;
 import com.aynlabs.lumoBills.backend.service.ProductService;
 import com.aynlabs.lumoBills.backend.service.ReportService;
-import com.aynlabs.lumoBills.backend.service.TaxService;
 import com.aynlabs.lumoBills.ui.MainLayout;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
@@ -25,6 +25,7 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.splitlayout.SplitLayout;
 import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.StreamResource;
@@ -47,11 +48,16 @@ public class BillingView extends VerticalLayout {
     private final InvoiceService invoiceService;
     private final SecurityService securityService;
     private final ReportService reportService;
-    private final TaxService taxService;
-    private final DiscountService discountService;
+    private final PricingEngine pricingEngine;
+
+    /** Client-side expression that returns the scanned code on Enter and empties the input. */
+    private static final String TAKE_SCANNED_CODE = "event.key === 'Enter' "
+            + "? (() => { const code = element.value; element.value = ''; return code; })() : ''";
 
     // UI Components
     private ComboBox<Customer> customerSelect = new ComboBox<>("Customer");
+    private TextField scanField = new TextField("Scan Code");
+
     private ComboBox<Product> productSelect = new ComboBox<>("Add Product");
     private IntegerField quantity = new IntegerField("Quantity");
     private Button addButton = new Button("Add Item");
@@ -74,7 +80,8 @@ public class BillingView extends VerticalLayout {
     private Anchor downloadLink = new Anchor();
 
     // State
-    private List<InvoiceItem> currentItems = new ArrayList<>();
+    private final CartModel cart = new CartModel();
+    private final ListDataProvider<InvoiceItem> itemProvider = new ListDataProvider<>(cart.getItems());
     private BigDecimal currentSubTotal = BigDecimal.ZERO;
     private BigDecimal currentTax = BigDecimal.ZERO;
     private BigDecimal currentDiscount = BigDecimal.ZERO;
@@ -88,15 +95,14 @@ public class BillingView extends VerticalLayout {
 
     public BillingView(ProductService productService, CustomerService customerService,
             InvoiceService invoiceService, SecurityService securityService,
-            ReportService reportService, TaxService taxService, DiscountService discountService,
+            ReportService reportService, PricingEngine pricingEngine,
             com.aynlabs.lumoBills.backend.service.SystemSettingService settingService) {
         this.productService = productService;
         this.customerService = customerService;
         this.invoiceService = invoiceService;
         this.securityService = securityService;
         this.reportService = reportService;
-        this.taxService = taxService;
-        this.discountService = discountService;
+        this.pricingEngine = pricingEngine;
 
         // Load currency symbol
         String currencyCode = settingService.getValue("CURRENCY", "INR");
@@ -150,7 +156,8 @@ public class BillingView extends VerticalLayout {
         HorizontalLayout customerLayout = new HorizontalLayout(customerSelect, addCustomerBtn);
         customerLayout.setAlignItems(Alignment.BASELINE);
 
-        HorizontalLayout toolbar = new HorizontalLayout(customerLayout, productSelect, quantity, addButton);
+        HorizontalLayout toolbar = new HorizontalLayout(customerLayout, scanField, productSelect, quantity,
+                addButton);
         toolbar.setAlignItems(Alignment.BASELINE);
 
         addButton.addClickListener(e -> addItem());
@@ -221,7 +228,7 @@ public class BillingView extends VerticalLayout {
                 c.setEmail(email.getValue());
                 c.setPhone(phone.getValue());
                 customerService.save(c);
-                customerSelect.setItems(customerService.findAll());
+                customerSelect.getDataProvider().refreshAll();
                 customerSelect.setValue(c);
                 addDialog.close();
                 Notification.show("Customer created");
@@ -259,25 +266,37 @@ public class BillingView extends VerticalLayout {
     }
 
     private void updateRecentInvoices() {
-        // Simple implementation: all invoices, could be optimized to top 10
-        List<Invoice> all = invoiceService.findAll();
-        // Sort descending by id or date to show newest first
-        all.sort((i1, i2) -> i2.getId().compareTo(i1.getId()));
-        recentGrid.setItems(all.stream().limit(10).toList());
+        recentGrid.setItems(invoiceService.findRecent(10));
     }
 
     private void configureComponents() {
-        customerSelect.setItems(customerService.findAll());
+        customerSelect.setItems(query -> customerService
+                .search(query.getFilter().orElse(""), query.getOffset(), query.getLimit()).stream());
         customerSelect.setItemLabelGenerator(Customer::getFullName);
         customerSelect.addValueChangeListener(e -> {
             selectedCustomer = e.getValue();
             updateSaveButtonState();
         });
 
-        productSelect.setItems(productService.findAll());
+        // Lazy: each keystroke asks the shared search index for one page
+        productSelect.setItems(query -> productService
+                .search(query.getFilter().orElse(""), query.getOffset(), query.getLimit()).stream());
         productSelect.setItemLabelGenerator(
                 p -> p.getName() + " (Stock: " + (p.getQuantityInStock() != null ? p.getQuantityInStock() : 0) + ")");
 
+        // A scanner types the code and presses Enter; each scan adds one unit. The
+        // code is read and the input emptied in the browser within that keydown, so
+        // a clear from the server can never land on the next, half-typed code
+        scanField.setPlaceholder("Barcode / SKU");
+        scanField.setValueChangeMode(null);
+        scanField.setAutofocus(true);
+        scanField.getElement().addEventListener("keydown", e -> {
+            String code = e.getEventData().getString(TAKE_SCANNED_CODE);
+            if (!code.isBlank()) {
+                scanItem(code);
+            }
+        }).setFilter("event.key === 'Enter'").addEventData(TAKE_SCANNED_CODE);
+
         quantity.setValue(1);
         quantity.setMin(1);
 
@@ -296,8 +315,9 @@ public class BillingView extends VerticalLayout {
                                 .addThemeVariants(NotificationVariant.LUMO_ERROR);
                         qtyField.setValue(e.getOldValue());
                     } else {
-                        item.setQuantity(e.getValue());
-                        refreshGrid();
+                        cart.setQuantity(item, e.getValue());
+                        itemProvider.refreshItem(item);
+                        cartChanged();
                     }
                 }
             });
@@ -312,13 +332,15 @@ public class BillingView extends VerticalLayout {
                     new com.vaadin.flow.component.icon.Icon(com.vaadin.flow.component.icon.VaadinIcon.TRASH));
             removeBtn.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_TERTIARY);
             removeBtn.addClickListener(e -> {
-                currentItems.remove(item);
-                refreshGrid();
+                cart.remove(item);
+                itemProvider.refreshAll();
+                cartChanged();
                 Notification.show("Item removed", 2000, Notification.Position.BOTTOM_END);
             });
             return removeBtn;
         }).setHeader("Actions");
 
+        itemGrid.setItems(itemProvider);
         com.aynlabs.lumoBills.ui.util.GridHelper.setBasicProperties(itemGrid);
     }
 
@@ -326,84 +348,57 @@ public class BillingView extends VerticalLayout {
         Product product = productSelect.getValue();
         Integer qty = quantity.getValue();
 
-        if (product != null && qty != null && qty > 0) {
-            // Check total quantity needed including what's already in the grid
-            int currentQtyInGrid = currentItems.stream()
-                    .filter(item -> item.getProduct().equals(product))
-                    .mapToInt(InvoiceItem::getQuantity)
-                    .sum();
-
-            if (product.getQuantityInStock() < (qty + currentQtyInGrid)) {
-                Notification.show("Insufficient Stock! Available: " + product.getQuantityInStock(),
-                        3000, Notification.Position.MIDDLE).addThemeVariants(NotificationVariant.LUMO_ERROR);
-                return;
-            }
-
-            // Check if product already exists in currentItems
-            java.util.Optional<InvoiceItem> existingItem = currentItems.stream()
-                    .filter(item -> item.getProduct().equals(product))
-                    .findFirst();
-
-            if (existingItem.isPresent()) {
-                InvoiceItem item = existingItem.get();
-                item.setQuantity(item.getQuantity() + qty);
-            } else {
-                InvoiceItem item = new InvoiceItem();
-                item.setProduct(product);
-                item.setQuantity(qty);
-                item.setUnitPrice(product.getUnitPrice());
-                currentItems.add(item);
-            }
-
-            refreshGrid();
+        if (product != null && qty != null && qty > 0 && addToCart(product, qty)) {
             quantity.setValue(1);
         }
     }
 
-    private void refreshGrid() {
-        itemGrid.setItems(currentItems);
-        calculateTotal();
-        updateSaveButtonState();
+    private void scanItem(String code) {
+        scanField.focus();
+        Product product = productService.findByCode(code);
+        if (product == null) {
+            Notification.show("No product with code " + code, 2000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
+        addToCart(product, 1);
     }
 
-    private void calculateTotal() {
-        // 1. Subtotal
-        currentSubTotal = currentItems.stream()
-                .map(InvoiceItem::getSubTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // 2. Discounts
-        List<com.aynlabs.lumoBills.backend.entity.Discount> activeDiscounts = discountService.findActive();
-        currentDiscount = BigDecimal.ZERO;
-
-        for (com.aynlabs.lumoBills.backend.entity.Discount d : activeDiscounts) {
-            if (d.getType() == com.aynlabs.lumoBills.backend.entity.Discount.DiscountType.FIXED) {
-                currentDiscount = currentDiscount.add(d.getDiscountValue());
-            } else {
-                // Percent
-                BigDecimal discountVal = currentSubTotal.multiply(d.getDiscountValue().divide(BigDecimal.valueOf(100)));
-                currentDiscount = currentDiscount.add(discountVal);
-            }
-        }
+    private boolean addToCart(Product product, int qty) {
+        // Check total quantity needed including what's already in the grid
+        int currentQtyInGrid = cart.quantityOf(product);
 
-        // Ensure discount doesn't exceed subtotal
-        if (currentDiscount.compareTo(currentSubTotal) > 0) {
-            currentDiscount = currentSubTotal;
+        if (product.getQuantityInStock() < (qty + currentQtyInGrid)) {
+            Notification.show("Insufficient Stock! Available: " + product.getQuantityInStock(),
+                    3000, Notification.Position.MIDDLE).addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return false;
         }
 
-        BigDecimal taxableAmount = currentSubTotal.subtract(currentDiscount);
+        // Merge into the product's existing line if there is one
+        InvoiceItem existingItem = cart.find(product);
+        if (existingItem != null) {
+            cart.setQuantity(existingItem, existingItem.getQuantity() + qty);
+            itemProvider.refreshItem(existingItem);
+        } else {
+            cart.add(product, qty);
+            itemProvider.refreshAll();
+        }
 
-        // 3. Taxes
-        List<com.aynlabs.lumoBills.backend.entity.Tax> activeTaxes = taxService.findActive();
-        currentTax = BigDecimal.ZERO;
+        cartChanged();
+        return true;
+    }
 
-        for (com.aynlabs.lumoBills.backend.entity.Tax t : activeTaxes) {
-            BigDecimal taxVal = taxableAmount.multiply(t.getPercentage().divide(BigDecimal.valueOf(100)));
-            currentTax = currentTax.add(taxVal);
-        }
+    private void cartChanged() {
+        calculateTotal();
+        updateSaveButtonState();
+    }
 
-        // 4. Grand Total
-        currentTotal = taxableAmount.add(currentTax);
+    private void calculateTotal() {
+        PricingEngine.Quote quote = pricingEngine.quote(cart.getSubTotal());
+        currentSubTotal = quote.subTotal();
+        currentDiscount = quote.discount();
+        currentTax = quote.tax();
+        currentTotal = quote.total();
 
         // Update UI
         subTotalSpan.setText("Subtotal: " + this.currencySymbol + String.format("%.2f", currentSubTotal));
@@ -415,7 +410,7 @@ public class BillingView extends VerticalLayout {
     }
 
     private void updateSaveButtonState() {
-        boolean valid = selectedCustomer != null && !currentItems.isEmpty();
+        boolean valid = selectedCustomer != null && !cart.isEmpty();
         saveInvoiceButton.setEnabled(valid);
         saveDraftButton.setEnabled(valid);
     }
@@ -430,7 +425,7 @@ public class BillingView extends VerticalLayout {
 
             // Deep copy items to prevent JPA detached entity exceptions on sequential saves
             List<InvoiceItem> copiedItems = new ArrayList<>();
-            for (InvoiceItem item : currentItems) {
+            for (InvoiceItem item : cart.getItems()) {
                 InvoiceItem copy = new InvoiceItem();
                 copy.setProduct(item.getProduct());
                 copy.setQuantity(item.getQuantity());
@@ -513,10 +508,12 @@ public class BillingView extends VerticalLayout {
     // Removed separate generatePdf method as logic is now in saveInvoice dialog
 
     private void resetInvoice() {
-        currentItems.clear();
-        refreshGrid();
+        cart.clear();
+        itemProvider.refreshAll();
+        cartChanged();
         customerSelect.clear();
         productSelect.clear();
+        scanField.clear();
         notesField.clear();
         paymentModeSelect.setValue(Invoice.PaymentMode.CASH);
         amountReceivedField.setValue(BigDecimal.ZERO);
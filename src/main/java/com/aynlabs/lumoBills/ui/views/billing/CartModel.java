@@ -0,0 +1,70 @@
+package com.aynlabs.lumoBills.ui.views.billing;
+
+import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lines of the invoice being built in BillingView, one per product in the
+ * order they were added. The subtotal is kept as a running sum: every change
+ * applies only the difference of the line it touches, so the cost does not
+ * grow with the number of lines.
+ */
+class CartModel {
+
+    private final Map<Long, InvoiceItem> lines = new LinkedHashMap<>();
+    private BigDecimal subTotal = BigDecimal.ZERO;
+
+    /** Live view of the lines, suitable as the backing collection of a ListDataProvider. */
+    Collection<InvoiceItem> getItems() {
+        return lines.values();
+    }
+
+    BigDecimal getSubTotal() {
+        return subTotal;
+    }
+
+    boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    InvoiceItem find(Product product) {
+        return lines.get(product.getId());
+    }
+
+    int quantityOf(Product product) {
+        InvoiceItem item = find(product);
+        return item != null ? item.getQuantity() : 0;
+    }
+
+    /** Adds a new line for a product that is not in the cart yet. */
+    InvoiceItem add(Product product, int quantity) {
+        InvoiceItem item = new InvoiceItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(product.getUnitPrice());
+        lines.put(product.getId(), item);
+        subTotal = subTotal.add(item.getSubTotal());
+        return item;
+    }
+
+    void setQuantity(InvoiceItem item, int quantity) {
+        BigDecimal before = item.getSubTotal();
+        item.setQuantity(quantity);
+        subTotal = subTotal.add(item.getSubTotal().subtract(before));
+    }
+
+    void remove(InvoiceItem item) {
+        if (lines.remove(item.getProduct().getId()) != null) {
+            subTotal = subTotal.subtract(item.getSubTotal());
+        }
+    }
+
+    void clear() {
+        lines.clear();
+        subTotal = BigDecimal.ZERO;
+    }
+}
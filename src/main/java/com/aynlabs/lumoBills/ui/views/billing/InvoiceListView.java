@@ -71,7 +71,7 @@ public class InvoiceListView extends VerticalLayout {
         grid.setSizeFull();
         grid.setColumns("date");
         grid.addColumn(invoice -> invoice.getInvoiceNumber() != null ? invoice.getInvoiceNumber() : invoice.getId())
-                .setHeader("Invoice #").setSortable(true);
+                .setHeader("Invoice #");
         grid.addColumn(invoice -> invoice.getCustomer() != null ? invoice.getCustomer().getFullName() : "N/A")
                 .setHeader("Customer");
         grid.addComponentColumn(invoice -> {
@@ -88,7 +88,7 @@ public class InvoiceListView extends VerticalLayout {
                 badge.getElement().getThemeList().add("error");
             }
             return badge;
-        }).setHeader("Status").setSortable(true);
+        }).setHeader("Status");
         grid.addColumn(invoice -> this.currencySymbol
                 + (invoice.getTotalAmount() != null ? invoice.getTotalAmount() : java.math.BigDecimal.ZERO))
                 .setHeader("Total Amount");
@@ -102,11 +102,14 @@ public class InvoiceListView extends VerticalLayout {
         grid.setSelectionMode(Grid.SelectionMode.NONE);
         grid.addItemClickListener(e -> {
             if (e.getItem() != null) {
-                openInvoiceDialog(e.getItem());
+                // Reload so the dialog shows the current state, not the row fetched on scroll
+                invoiceService.findById(e.getItem().getId()).ifPresent(this::openInvoiceDialog);
             }
         });
 
         com.aynlabs.lumoBills.ui.util.GridHelper.setBasicProperties(grid);
+        // Rows come newest first from the database, in-memory sorting does not apply
+        grid.getColumns().forEach(column -> column.setSortable(false));
     }
 
     private void openInvoiceDialog(Invoice invoice) {
@@ -255,40 +258,105 @@ public class InvoiceListView extends VerticalLayout {
         Button searchBtn = new Button("Filters", e -> updateList());
         searchBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
 
-        HorizontalLayout toolbar = new HorizontalLayout(filterText, startDate, endDate, statusFilter, searchBtn);
+        Button exportBtn = new Button("Export PDFs", new Icon(VaadinIcon.FILE_ZIP), e -> openBulkExportDialog());
+
+        HorizontalLayout toolbar = new HorizontalLayout(filterText, startDate, endDate, statusFilter, searchBtn,
+                exportBtn);
         toolbar.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
         toolbar.addClassName("toolbar");
         return toolbar;
     }
 
-    private void updateList() {
-        java.util.List<Invoice> all = invoiceService.findAll();
-
-        if (filterText.getValue() != null && !filterText.getValue().isEmpty()) {
-            String term = filterText.getValue().toLowerCase();
-            all = all.stream().filter(invoice -> (invoice.getCustomer() != null
-                    && invoice.getCustomer().getFullName().toLowerCase().contains(term)) ||
-                    (invoice.getInvoiceNumber() != null && invoice.getInvoiceNumber().toLowerCase().contains(term)))
-                    .toList();
-        }
-
-        if (statusFilter.getValue() != null) {
-            all = all.stream().filter(i -> i.getStatus() == statusFilter.getValue()).toList();
-        }
-
-        if (startDate.getValue() != null) {
-            java.time.LocalDateTime start = startDate.getValue().atStartOfDay();
-            all = all.stream().filter(i -> !i.getDate().isBefore(start)).toList();
-        }
-
-        if (endDate.getValue() != null) {
-            java.time.LocalDateTime end = endDate.getValue().atTime(java.time.LocalTime.MAX);
-            all = all.stream().filter(i -> !i.getDate().isAfter(end)).toList();
-        }
-
-        all = new java.util.ArrayList<>(all);
-        all.sort((i1, i2) -> i2.getId().compareTo(i1.getId()));
+    private void openBulkExportDialog() {
+        java.time.LocalDateTime start = startDate.getValue() != null ? startDate.getValue().atStartOfDay() : null;
+        java.time.LocalDateTime end = endDate.getValue() != null
+                ? endDate.getValue().atTime(java.time.LocalTime.MAX)
+                : null;
+        Invoice.InvoiceStatus status = statusFilter.getValue();
+
+        com.vaadin.flow.component.dialog.Dialog dialog = new com.vaadin.flow.component.dialog.Dialog();
+        dialog.setHeaderTitle("Export Invoice PDFs");
+        dialog.setWidth("450px");
+
+        com.vaadin.flow.component.html.Span filterInfo = new com.vaadin.flow.component.html.Span(
+                "From: " + (start != null ? startDate.getValue() : "Any")
+                        + " | To: " + (end != null ? endDate.getValue() : "Any")
+                        + " | Status: " + (status != null ? status.name() : "All"));
+        com.vaadin.flow.component.progressbar.ProgressBar progressBar = new com.vaadin.flow.component.progressbar.ProgressBar();
+        com.vaadin.flow.component.html.Span progressText = new com.vaadin.flow.component.html.Span(
+                "Click Download to start the export.");
+
+        com.vaadin.flow.component.UI ui = com.vaadin.flow.component.UI.getCurrent();
+        java.util.concurrent.atomic.AtomicBoolean cancelled = new java.util.concurrent.atomic.AtomicBoolean();
+
+        StreamResource resource = new StreamResource("invoices.zip", (out, session) -> {
+            cancelled.set(false);
+            try {
+                reportService.exportInvoicePdfs(start, end, status, out, (done, total) -> {
+                    // Throttle UI updates to roughly one per percent
+                    if (done.equals(total) || done % Math.max(1, total / 100) == 0) {
+                        ui.access(() -> {
+                            progressBar.setValue(total == 0 ? 1 : (double) done / total);
+                            progressText.setText(cancelled.get() ? "Cancelled after " + done + " invoices"
+                                    : done + " / " + total + " invoices");
+                        });
+                    }
+                }, cancelled::get);
+            } catch (java.io.IOException ex) {
+                throw ex;
+            } catch (java.util.concurrent.CancellationException ex) {
+                // Abort the response so the browser reports a failed download, not a short archive
+                throw new java.io.IOException(ex.getMessage(), ex);
+            } catch (Exception ex) {
+                throw new java.io.IOException("Invoice export failed", ex);
+            }
+        });
+        resource.setContentType("application/zip");
+
+        Button downloadBtn = new Button("Download ZIP", new Icon(VaadinIcon.DOWNLOAD));
+        downloadBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        Anchor downloadLink = new Anchor(resource, "");
+        downloadLink.getElement().setAttribute("download", true);
+        downloadLink.add(downloadBtn);
+
+        Button cancelBtn = new Button("Cancel Export", new Icon(VaadinIcon.STOP), e -> cancelled.set(true));
+        cancelBtn.addThemeVariants(ButtonVariant.LUMO_ERROR);
+
+        dialog.add(new VerticalLayout(filterInfo, progressBar, progressText));
+        dialog.getFooter().add(new Button("Close", e -> {
+            cancelled.set(true);
+            dialog.close();
+        }), cancelBtn, downloadLink);
+        dialog.open();
+    }
 
-        grid.setItems(all);
+    private void updateList() {
+        String term = filterText.getValue();
+        Invoice.InvoiceStatus status = statusFilter.getValue();
+        java.time.LocalDateTime start = startDate.getValue() != null ? startDate.getValue().atStartOfDay() : null;
+        java.time.LocalDateTime end = endDate.getValue() != null
+                ? endDate.getValue().atTime(java.time.LocalTime.MAX)
+                : null;
+
+        // offset -> id of the row just above it, filled in as the user scrolls
+        java.util.Map<Integer, Long> pageBoundaries = new java.util.HashMap<>();
+
+        grid.setItems(query -> {
+            int offset = query.getOffset();
+            Long afterId = pageBoundaries.get(offset);
+            java.util.List<Invoice> page;
+            if (offset == 0 || afterId != null) {
+                page = invoiceService.findListPage(term, status, start, end, afterId,
+                        org.springframework.data.domain.PageRequest.of(0, query.getLimit()));
+            } else {
+                // Jumped past the pages seen so far, fall back to an offset query
+                page = invoiceService.findListPage(term, status, start, end, null,
+                        org.springframework.data.domain.PageRequest.of(query.getPage(), query.getPageSize()));
+            }
+            if (!page.isEmpty()) {
+                pageBoundaries.put(offset + page.size(), page.get(page.size() - 1).getId());
+            }
+            return page.stream();
+        }, query -> (int) invoiceService.countList(term, status, start, end));
     }
 }
@@ -65,8 +65,9 @@ public class CustomerView extends VerticalLayout {
                 badge.getElement().getThemeList().add("badge success");
             }
             return badge;
-        }).setHeader("Outstanding Balance").setSortable(true);
-        grid.getColumns().forEach(col -> col.setAutoWidth(true));
+        }).setHeader("Outstanding Balance");
+        // Rows come back in relevance order from the search index, so columns do not sort
+        grid.getColumns().forEach(col -> col.setAutoWidth(true).setSortable(false));
 
         grid.asSingleSelect().addValueChangeListener(event -> editCustomer(event.getValue()));
     }
@@ -80,7 +81,7 @@ public class CustomerView extends VerticalLayout {
     }
 
     private HorizontalLayout getToolbar() {
-        filterText.setPlaceholder("Filter by name...");
+        filterText.setPlaceholder("Name, email, phone or city...");
         filterText.setClearButtonVisible(true);
         filterText.setValueChangeMode(com.vaadin.flow.data.value.ValueChangeMode.LAZY);
         filterText.addValueChangeListener(e -> updateList());
@@ -138,17 +139,9 @@ public class CustomerView extends VerticalLayout {
     }
 
     private void updateList() {
-        java.util.List<Customer> allCustomers = customerService.findAll();
-        if (filterText.getValue() != null && !filterText.getValue().isEmpty()) {
-            String term = filterText.getValue().toLowerCase();
-            allCustomers = allCustomers.stream()
-                    .filter(c -> (c.getFirstName() != null && c.getFirstName().toLowerCase().contains(term)) ||
-                            (c.getLastName() != null && c.getLastName().toLowerCase().contains(term)) ||
-                            (c.getEmail() != null && c.getEmail().toLowerCase().contains(term)) ||
-                            (c.getPhone() != null && c.getPhone().toLowerCase().contains(term)))
-                    .toList();
-        }
-        grid.setItems(allCustomers);
+        String term = filterText.getValue();
+        grid.setItems(query -> customerService.search(term, query.getOffset(), query.getLimit()).stream(),
+                query -> customerService.count(term));
     }
 
     // Inner Form Class
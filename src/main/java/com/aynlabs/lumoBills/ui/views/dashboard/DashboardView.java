@@ -1,12 +1,19 @@
 package com.aynlabs.lumoBills.ui.views.dashboard;
 
 import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.event.DashboardBroadcaster;
+import com.aynlabs.lumoBills.backend.event.StockChangedEvent;
+import com.aynlabs.lumoBills.backend.service.DailySummaryService;
+import com.aynlabs.lumoBills.backend.service.DashboardSnapshotService;
 import com.aynlabs.lumoBills.backend.service.ProductService;
 import com.aynlabs.lumoBills.ui.MainLayout;
 import com.aynlabs.lumoBills.backend.service.InvoiceService;
 import com.aynlabs.lumoBills.backend.service.StockService;
 import com.aynlabs.lumoBills.backend.service.SystemSettingService;
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.Html;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H4;
@@ -19,10 +26,10 @@ import com.vaadin.flow.router.RouteAlias;
 import jakarta.annotation.security.PermitAll;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.button.Button;
@@ -40,23 +47,41 @@ public class DashboardView extends VerticalLayout {
         private final StockService stockService;
         private final SystemSettingService settingService;
         private final com.aynlabs.lumoBills.backend.service.PurchaseService purchaseService;
+        private final DashboardSnapshotService snapshotService;
+        private final DashboardBroadcaster broadcaster;
 
         private DatePicker startDate = new DatePicker("From Date");
         private DatePicker endDate = new DatePicker("To Date");
         private FlexLayout statsLayout = new FlexLayout();
         private String currencySymbol = "$";
         private com.vaadin.flow.component.html.Div chartContainer = new com.vaadin.flow.component.html.Div();
+        private VerticalLayout recentActivityList = new VerticalLayout();
+
+        // Figures for the selected range; pushed updates are applied here without reloading
+        private final TreeMap<LocalDate, BigDecimal> salesByDay = new TreeMap<>();
+        private final TreeMap<LocalDate, BigDecimal> purchaseByDay = new TreeMap<>();
+        // Summary row version each day's figures are from; older pushed totals are ignored
+        private final Map<LocalDate, Integer> versionByDay = new HashMap<>();
+        private BigDecimal pendingAmount = BigDecimal.ZERO;
+        private long lowStockCount;
+        private Runnable unregister;
+
+        private static final int RECENT_ACTIVITY_LIMIT = 8;
 
         public DashboardView(ProductService productService,
                         InvoiceService invoiceService,
                         StockService stockService,
                         SystemSettingService settingService,
-                        com.aynlabs.lumoBills.backend.service.PurchaseService purchaseService) {
+                        com.aynlabs.lumoBills.backend.service.PurchaseService purchaseService,
+                        DashboardSnapshotService snapshotService,
+                        DashboardBroadcaster broadcaster) {
                 this.productService = productService;
                 this.invoiceService = invoiceService;
                 this.stockService = stockService;
                 this.settingService = settingService;
                 this.purchaseService = purchaseService;
+                this.snapshotService = snapshotService;
+                this.broadcaster = broadcaster;
 
                 addClassName("dashboard-view");
                 setSizeFull();
@@ -68,8 +93,8 @@ public class DashboardView extends VerticalLayout {
                 this.currencySymbol = getCurrencySymbol(currencyCode);
 
                 // Date Filters
-                startDate.setValue(LocalDate.now().minusMonths(1));
-                endDate.setValue(LocalDate.now());
+                startDate.setValue(DashboardSnapshotService.defaultStart());
+                endDate.setValue(DashboardSnapshotService.defaultEnd());
 
                 Button refreshBtn = new Button("Apply Filters", e -> refreshDashboard());
                 refreshBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
@@ -161,21 +186,16 @@ public class DashboardView extends VerticalLayout {
                                 .set("margin-top", "12px");
                 activityFeed.add(activityHeader);
 
+                recentActivityList.setPadding(false);
+                recentActivityList.setSpacing(false);
+                activityFeed.add(recentActivityList);
+
                 List<com.aynlabs.lumoBills.backend.entity.StockHistory> recentActivity = stockService
-                                .findRecentActivity(8);
+                                .findRecentActivity(RECENT_ACTIVITY_LIMIT);
                 for (com.aynlabs.lumoBills.backend.entity.StockHistory activity : recentActivity) {
-                        String text = String.format("%s: %s %d for %s",
-                                        activity.getTimestamp().toLocalTime().toString(),
-                                        activity.getType(),
-                                        activity.getChangeAmount(),
-                                        activity.getProduct().getName());
-                        Span span = new Span(text);
-                        span.getStyle()
-                                        .set("font-size", "var(--lumo-font-size-s)")
-                                        .set("border-bottom", "1px solid var(--lumo-contrast-10pct)")
-                                        .set("padding", "6px 0")
-                                        .set("display", "block");
-                        activityFeed.add(span);
+                        recentActivityList.add(createActivityEntry(activity.getTimestamp().toLocalTime().toString(),
+                                        activity.getType(), activity.getChangeAmount(),
+                                        activity.getProduct().getName()));
                 }
 
                 mainContent.add(chartSection, activityFeed);
@@ -185,13 +205,79 @@ public class DashboardView extends VerticalLayout {
                 initChart();
         }
 
+        @Override
+        protected void onAttach(AttachEvent attachEvent) {
+                super.onAttach(attachEvent);
+                UI ui = attachEvent.getUI();
+                unregister = broadcaster.register(update -> ui.access(() -> applyUpdate(update)));
+        }
+
+        @Override
+        protected void onDetach(DetachEvent detachEvent) {
+                if (unregister != null) {
+                        unregister.run();
+                        unregister = null;
+                }
+                super.onDetach(detachEvent);
+        }
+
         private void refreshDashboard() {
-                statsLayout.removeAll();
-                LocalDateTime start = startDate.getValue().atStartOfDay();
-                LocalDateTime end = endDate.getValue().atTime(java.time.LocalTime.MAX);
+                // Shared snapshot; copied because pushed updates are applied to this view's figures
+                DashboardSnapshotService.DashboardSnapshot snapshot = snapshotService
+                                .getSnapshot(startDate.getValue(), endDate.getValue());
+                salesByDay.clear();
+                salesByDay.putAll(snapshot.salesByDay());
+                purchaseByDay.clear();
+                purchaseByDay.putAll(snapshot.purchaseByDay());
+                versionByDay.clear();
+                versionByDay.putAll(snapshot.versionByDay());
+                pendingAmount = snapshot.pendingAmount();
+                lowStockCount = snapshot.lowStockCount();
+                renderStats();
+        }
 
-                BigDecimal income = invoiceService.getTotalSalesAmountBetween(start, end);
-                BigDecimal expense = purchaseService.getTotalAmountBetween(start, end);
+        /**
+         * Applies pushed totals and stock movements to the figures already on
+         * screen, without going back to the database. A day's totals replace
+         * the shown ones only if they are from a newer summary row version, so
+         * a change already in the snapshot is not counted twice. Pending
+         * amount and low stock count are only reloaded with the filters.
+         */
+        private void applyUpdate(DashboardBroadcaster.DashboardUpdate update) {
+                boolean changed = false;
+                for (Map.Entry<LocalDate, DailySummaryService.DayTotals> entry : update.totals().entrySet()) {
+                        LocalDate day = entry.getKey();
+                        if (startDate.getValue() != null && day.isBefore(startDate.getValue())
+                                        || endDate.getValue() != null && day.isAfter(endDate.getValue())) {
+                                continue;
+                        }
+                        DailySummaryService.DayTotals totals = entry.getValue();
+                        if (totals.version() <= versionByDay.getOrDefault(day, -1)) {
+                                continue;
+                        }
+                        salesByDay.put(day, totals.paidSales());
+                        purchaseByDay.put(day, totals.purchaseTotal());
+                        versionByDay.put(day, totals.version());
+                        changed = true;
+                }
+                if (changed) {
+                        renderStats();
+                }
+
+                for (StockChangedEvent.StockMovement movement : update.movements()) {
+                        recentActivityList.addComponentAsFirst(createActivityEntry(
+                                        movement.timestamp().toLocalTime().toString(), movement.type(),
+                                        movement.changeAmount(), movement.productName()));
+                }
+                while (recentActivityList.getComponentCount() > RECENT_ACTIVITY_LIMIT) {
+                        recentActivityList.remove(recentActivityList.getComponentAt(RECENT_ACTIVITY_LIMIT));
+                }
+        }
+
+        private void renderStats() {
+                statsLayout.removeAll();
+                BigDecimal income = salesByDay.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal expense = purchaseByDay.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
                 BigDecimal profit = income.subtract(expense);
 
                 statsLayout.add(createCard("Total Income", currencySymbol + " " + income, "stats-card", "#059669",
@@ -204,38 +290,27 @@ public class DashboardView extends VerticalLayout {
                 statsLayout.add(createCard("Net Profit/Loss", currencySymbol + " " + profit, "stats-card", profitColor,
                                 profitEnd));
 
-                BigDecimal pendingAmount = invoiceService.getPendingSalesAmount();
                 statsLayout.add(createCard("Total Pending Amount", currencySymbol + " " + pendingAmount, "stats-card",
                                 "#D97706",
                                 "#FBBF24"));
 
-                long lowStockCount = productService.findAll().stream().filter(Product::isLowStock).count();
                 statsLayout.add(createCard("Low Stock Alerts", String.valueOf(lowStockCount), "error-card"));
 
-                updateChartData(start, end);
+                updateChartData();
         }
 
-        private void updateChartData(LocalDateTime start, LocalDateTime end) {
-                // Fetch and aggregate data
-                Map<LocalDate, BigDecimal> salesByDay = invoiceService.findAll().stream()
-                                .filter(i -> i.getStatus() == com.aynlabs.lumoBills.backend.entity.Invoice.InvoiceStatus.PAID)
-                                .filter(i -> i.getDate().isAfter(start) && i.getDate().isBefore(end))
-                                .collect(Collectors.groupingBy(i -> i.getDate().toLocalDate(),
-                                                Collectors.reducing(BigDecimal.ZERO,
-                                                                com.aynlabs.lumoBills.backend.entity.Invoice::getTotalAmount,
-                                                                BigDecimal::add)));
-
-                Map<LocalDate, BigDecimal> purchaseByDay = purchaseService.findByDateBetween(start, end).stream()
-                                .collect(Collectors.groupingBy(p -> p.getPurchaseDate().toLocalDate(),
-                                                Collectors.reducing(BigDecimal.ZERO,
-                                                                com.aynlabs.lumoBills.backend.entity.Purchase::getTotal,
-                                                                BigDecimal::add)));
-
-                // Get combined sorted dates
-                List<LocalDate> allDates = new ArrayList<>();
-                allDates.addAll(salesByDay.keySet());
-                allDates.addAll(purchaseByDay.keySet());
-                List<LocalDate> sortedDates = allDates.stream().distinct().sorted().collect(Collectors.toList());
+        private void updateChartData() {
+                // Days with neither sales nor purchases are left off the chart
+                List<LocalDate> sortedDates = salesByDay.navigableKeySet().stream()
+                                .filter(d -> salesByDay.get(d).signum() != 0
+                                                || purchaseByDay.getOrDefault(d, BigDecimal.ZERO).signum() != 0)
+                                .collect(Collectors.toList());
+                purchaseByDay.forEach((d, amount) -> {
+                        if (!salesByDay.containsKey(d) && amount.signum() != 0) {
+                                sortedDates.add(d);
+                        }
+                });
+                sortedDates.sort(null);
 
                 if (sortedDates.isEmpty()) {
                         sortedDates.add(LocalDate.now());
@@ -269,6 +344,16 @@ public class DashboardView extends VerticalLayout {
                                                 "});");
         }
 
+        private Span createActivityEntry(String time, Object type, Integer changeAmount, String productName) {
+                Span span = new Span(String.format("%s: %s %d for %s", time, type, changeAmount, productName));
+                span.getStyle()
+                                .set("font-size", "var(--lumo-font-size-s)")
+                                .set("border-bottom", "1px solid var(--lumo-contrast-10pct)")
+                                .set("padding", "6px 0")
+                                .set("display", "block");
+                return span;
+        }
+
         private void initChart() {
                 // Ensure Chart.js is loaded
                 getElement().executeJs(
@@ -47,7 +47,9 @@ public class PurchaseView extends VerticalLayout {
         setSizeFull();
         setPadding(true);
 
-        add(new H2("Raw Material Purchases"), createForm(), createPurchaseList());
+        Button importButton = new Button("Import Delivery Note", e -> openImportDialog());
+
+        add(new H2("Raw Material Purchases"), createForm(), importButton, createPurchaseList());
 
         setupBinder();
         updateList();
@@ -64,7 +66,8 @@ public class PurchaseView extends VerticalLayout {
         submitButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         submitButton.addClickListener(e -> savePurchase());
 
-        product.setItems(productService.findAll());
+        product.setItems(query -> productService
+                .search(query.getFilter().orElse(""), query.getOffset(), query.getLimit()).stream());
         product.setItemLabelGenerator(com.aynlabs.lumoBills.backend.entity.Product::getName);
 
         form.add(product, sellerName, quantity, price, total, submitButton);
@@ -121,6 +124,74 @@ public class PurchaseView extends VerticalLayout {
         }
     }
 
+    private void openImportDialog() {
+        com.vaadin.flow.component.dialog.Dialog dialog = new com.vaadin.flow.component.dialog.Dialog();
+        dialog.setHeaderTitle("Import Delivery Note");
+        dialog.setWidth("600px");
+
+        TextField seller = new TextField("Seller Name");
+        TextField reference = new TextField("Document Number");
+        com.vaadin.flow.component.html.Span help = new com.vaadin.flow.component.html.Span(
+                "CSV or XLSX with a header row: code or product name, quantity, price. "
+                        + "All lines are recorded together, or none if any line is invalid.");
+        com.vaadin.flow.component.html.Span resultText = new com.vaadin.flow.component.html.Span();
+        Grid<com.aynlabs.lumoBills.backend.service.ProductImportService.RowError> errorGrid = new Grid<>();
+        errorGrid.addColumn(com.aynlabs.lumoBills.backend.service.ProductImportService.RowError::rowNumber)
+                .setHeader("Row").setAutoWidth(true).setFlexGrow(0);
+        errorGrid.addColumn(com.aynlabs.lumoBills.backend.service.ProductImportService.RowError::message)
+                .setHeader("Error");
+        errorGrid.setHeight("200px");
+        errorGrid.setVisible(false);
+
+        com.vaadin.flow.component.upload.receivers.FileBuffer buffer = new com.vaadin.flow.component.upload.receivers.FileBuffer();
+        com.vaadin.flow.component.upload.Upload upload = new com.vaadin.flow.component.upload.Upload(buffer);
+        upload.setAcceptedFileTypes(".csv", ".xlsx");
+        upload.setMaxFileSize(purchaseService.getMaxDocumentSize());
+        // The browser checks the size too, but a client can skip that
+        upload.addProgressListener(event -> {
+            if (event.getReadBytes() > upload.getMaxFileSize()) {
+                upload.interruptUpload();
+            }
+        });
+        upload.addFileRejectedListener(event -> resultText.setText(event.getErrorMessage()));
+        upload.addSucceededListener(event -> {
+            java.nio.file.Path file = buffer.getFileData().getFile().toPath();
+            com.aynlabs.lumoBills.backend.importer.SheetReader.Format format = com.aynlabs.lumoBills.backend.importer.SheetReader.Format
+                    .forFileName(event.getFileName());
+            try {
+                if (format == null) {
+                    resultText.setText("Only .csv and .xlsx files can be imported.");
+                    return;
+                }
+                PurchaseService.DocumentImport result = purchaseService.importDocument(file, format,
+                        seller.isEmpty() ? null : seller.getValue(),
+                        reference.isEmpty() ? null : reference.getValue());
+                if (result.errors().isEmpty()) {
+                    resultText.setText(result.purchases().size() + " lines recorded.");
+                    errorGrid.setVisible(false);
+                    updateList();
+                } else {
+                    resultText.setText("Nothing recorded, " + result.errors().size() + " lines need fixing.");
+                    errorGrid.setItems(result.errors());
+                    errorGrid.setVisible(true);
+                }
+            } catch (Exception e) {
+                resultText.setText("Error importing delivery note: " + e.getMessage());
+            } finally {
+                try {
+                    java.nio.file.Files.deleteIfExists(file);
+                } catch (java.io.IOException e) {
+                    System.err.println("Could not delete import file " + file + ": " + e.getMessage());
+                }
+            }
+        });
+
+        dialog.add(new VerticalLayout(new com.vaadin.flow.component.orderedlayout.HorizontalLayout(seller, reference),
+                help, upload, resultText, errorGrid));
+        dialog.getFooter().add(new Button("Close", e -> dialog.close()));
+        dialog.open();
+    }
+
     private void clearForm() {
         product.clear();
         sellerName.clear();
@@ -141,7 +212,8 @@ public class PurchaseView extends VerticalLayout {
 
         com.vaadin.flow.component.combobox.ComboBox<com.aynlabs.lumoBills.backend.entity.Product> pSelect = new com.vaadin.flow.component.combobox.ComboBox<>(
                 "Product");
-        pSelect.setItems(productService.findAll());
+        pSelect.setItems(query -> productService
+                .search(query.getFilter().orElse(""), query.getOffset(), query.getLimit()).stream());
         pSelect.setItemLabelGenerator(com.aynlabs.lumoBills.backend.entity.Product::getName);
         pSelect.setValue(purchase.getProduct());
 
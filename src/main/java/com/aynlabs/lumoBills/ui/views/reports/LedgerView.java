@@ -19,12 +19,12 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import jakarta.annotation.security.PermitAll;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.List;
 
 @PermitAll
 @Route(value = "ledger", layout = MainLayout.class)
@@ -116,9 +116,9 @@ public class LedgerView extends VerticalLayout {
                 badge.getElement().getThemeList().add("error");
             }
             return badge;
-        }).setHeader("Type").setSortable(true);
+        }).setHeader("Type").setSortProperty("type");
 
-        grid.addColumn(entry -> currencySymbol + entry.getAmount()).setHeader("Amount");
+        grid.addColumn(entry -> currencySymbol + entry.getAmount()).setHeader("Amount").setSortProperty("amount");
 
         GridHelper.setBasicProperties(grid);
     }
@@ -127,12 +127,16 @@ public class LedgerView extends VerticalLayout {
         LocalDateTime start = startDate.getValue() != null ? startDate.getValue().atStartOfDay() : LocalDateTime.MIN;
         LocalDateTime end = endDate.getValue() != null ? endDate.getValue().atTime(LocalTime.MAX) : LocalDateTime.MAX;
 
-        List<LedgerEntry> entries = ledgerService.getEntriesBetween(start, end);
-        grid.setItems(entries);
+        LedgerService.LedgerTotals totals = ledgerService.getTotals(start, end);
 
-        BigDecimal income = ledgerService.getTotalIncome(start, end);
-        BigDecimal expense = ledgerService.getTotalExpense(start, end);
-        BigDecimal net = income.subtract(expense);
+        // Entries are fetched a page at a time as the grid scrolls; the row count comes with the totals
+        int entryCount = (int) totals.entryCount();
+        grid.setItems(query -> ledgerService.getEntriesBetween(start, end,
+                VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(), query -> entryCount);
+
+        BigDecimal income = totals.income();
+        BigDecimal expense = totals.expense();
+        BigDecimal net = totals.net();
 
         incomeSpan.setText(currencySymbol + income.toString());
         expenseSpan.setText(currencySymbol + expense.toString());
@@ -3,12 +3,16 @@ package com.aynlabs.lumoBills.ui.views.reports;
 import com.aynlabs.lumoBills.backend.dto.SalesReportDTO;
 import com.aynlabs.lumoBills.backend.dto.StockReportDTO;
 import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.export.ExportColumn;
+import com.aynlabs.lumoBills.backend.export.ReportColumns;
+import com.aynlabs.lumoBills.backend.export.TextExporter;
 import com.aynlabs.lumoBills.backend.service.ReportService;
 import com.aynlabs.lumoBills.ui.MainLayout;
 import com.aynlabs.lumoBills.ui.util.GridHelper;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.grid.Grid;
@@ -16,13 +20,14 @@ import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.StreamResourceWriter;
 import jakarta.annotation.security.PermitAll;
 import com.aynlabs.lumoBills.backend.dto.ProductProfitDTO;
 import com.vaadin.flow.component.html.Span;
-import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,6 +46,8 @@ public class ReportsView extends VerticalLayout {
     private DatePicker startDate = new DatePicker("Start Date");
     private DatePicker endDate = new DatePicker("End Date");
     private ComboBox<String> reportType = new ComboBox<>("Report Type");
+    private Select<String> exportFormat = new Select<>();
+    private Checkbox gzip = new Checkbox("Gzip");
 
     private VerticalLayout gridContainer = new VerticalLayout();
     private Grid<?> currentGrid;
@@ -67,14 +74,27 @@ public class ReportsView extends VerticalLayout {
         Button showBtn = new Button("Show Report", e -> refreshReport());
         showBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
 
-        Button exportExcelBtn = new Button("Export to Excel");
-        Anchor excelAnchor = new Anchor();
-        excelAnchor.add(exportExcelBtn);
-        excelAnchor.getElement().setAttribute("download", true);
-        exportExcelBtn.addClickListener(e -> prepareExcelExport(excelAnchor));
+        exportFormat.setLabel("Format");
+        exportFormat.setItems("Excel", "CSV", "NDJSON");
+        exportFormat.setValue("Excel");
+        exportFormat.setWidth("120px");
+        gzip.setEnabled(false);
+        exportFormat.addValueChangeListener(e -> {
+            gzip.setEnabled(!"Excel".equals(e.getValue()));
+            if ("Excel".equals(e.getValue())) {
+                gzip.setValue(false);
+            }
+        });
 
-        HorizontalLayout toolbar = new HorizontalLayout(startDate, endDate, reportType, showBtn, excelAnchor);
-        toolbar.setVerticalComponentAlignment(Alignment.END, showBtn, excelAnchor);
+        Button exportBtn = new Button("Export");
+        Anchor exportAnchor = new Anchor();
+        exportAnchor.add(exportBtn);
+        exportAnchor.getElement().setAttribute("download", true);
+        exportBtn.addClickListener(e -> prepareExport(exportAnchor));
+
+        HorizontalLayout toolbar = new HorizontalLayout(startDate, endDate, reportType, showBtn, exportFormat, gzip,
+                exportAnchor);
+        toolbar.setVerticalComponentAlignment(Alignment.END, showBtn, exportFormat, gzip, exportAnchor);
         return toolbar;
     }
 
@@ -157,43 +177,66 @@ public class ReportsView extends VerticalLayout {
         }
     }
 
-    private void prepareExcelExport(Anchor anchor) {
+    @SuppressWarnings("unchecked")
+    private void prepareExport(Anchor anchor) {
+        String type = reportType.getValue();
+        TextExporter.Format format = "Excel".equals(exportFormat.getValue()) ? null
+                : TextExporter.Format.valueOf(exportFormat.getValue());
+        boolean zipped = gzip.getValue();
+
+        // CSV and NDJSON of the sales and stock reports stream straight from the database
+        if (format != null && startDate.getValue() != null && endDate.getValue() != null) {
+            LocalDateTime start = startDate.getValue().atStartOfDay();
+            LocalDateTime end = endDate.getValue().atTime(LocalTime.MAX);
+            StreamResourceWriter writer = null;
+            if ("Sales Report".equals(type)) {
+                writer = (out, session) -> reportService.exportSales(start, end, format, zipped, out);
+            } else if ("Stock History".equals(type)) {
+                writer = (out, session) -> reportService.exportStockHistory(start, end, null, format, zipped, out);
+            } else if ("Stock Refill (Purchases)".equals(type)) {
+                writer = (out, session) -> reportService.exportStockHistory(start, end, TransactionType.PURCHASE,
+                        format, zipped, out);
+            }
+            if (writer != null) {
+                StreamResource resource = new StreamResource(format.fileName("report", zipped), writer);
+                resource.setContentType(format.contentType(zipped));
+                anchor.setHref(resource);
+                return;
+            }
+        }
+
         if (currentData == null || currentData.isEmpty())
             return;
 
-        String type = reportType.getValue();
-        String[] headers;
-        String[] fields;
-
         if ("Sales Report".equals(type)) {
-            headers = new String[] { "Invoice ID", "Date", "Customer", "Subtotal", "Tax", "Discount", "Total" };
-            fields = new String[] { "invoiceId", "date", "customerName", "subTotal", "taxAmount", "discountAmount",
-                    "totalAmount" };
+            setExportResource(anchor, (List<SalesReportDTO>) currentData, ReportColumns.SALES, format, zipped);
         } else if ("Raw Material Purchases".equals(type)) {
-            headers = new String[] { "Date", "Item Name", "Seller", "Qty", "Rate", "Total" };
-            fields = new String[] { "purchaseDate", "productName", "sellerName", "quantity", "price", "total" };
+            setExportResource(anchor, (List<Purchase>) currentData, ReportColumns.PURCHASES, format, zipped);
         } else if ("Product Profitability".equals(type)) {
-            headers = new String[] { "Product", "Buying Price", "Selling Price", "Profit/Loss Status" };
-            fields = new String[] { "productName", "buyingPrice", "sellingPrice", "status" };
+            setExportResource(anchor, (List<ProductProfitDTO>) currentData, ReportColumns.PRODUCT_PROFIT, format,
+                    zipped);
         } else if ("Stock Refill (Purchases)".equals(type)) {
-            headers = new String[] { "Date", "Product", "Quantity", "Buying Price", "Total Cost", "Conducted By",
-                    "Notes" };
-            fields = new String[] { "date", "productName", "changeAmount", "purchasePrice", "totalAmount",
-                    "conductedBy", "notes" };
+            setExportResource(anchor, (List<StockReportDTO>) currentData, ReportColumns.STOCK_REFILL, format,
+                    zipped);
         } else {
-            headers = new String[] { "Date", "Product", "Type", "Change", "Rate", "Total Financial", "Conducted By",
-                    "Notes" };
-            fields = new String[] { "date", "productName", "type", "changeAmount", "purchasePrice", "totalAmount",
-                    "conductedBy", "notes" };
+            setExportResource(anchor, (List<StockReportDTO>) currentData, ReportColumns.STOCK_HISTORY, format,
+                    zipped);
         }
+    }
 
-        StreamResource resource = new StreamResource("report.xlsx", () -> {
-            try {
-                return new ByteArrayInputStream(reportService.exportToExcel(currentData, headers, fields));
-            } catch (Exception e) {
-                return new ByteArrayInputStream(new byte[0]);
-            }
-        });
+    private <T> void setExportResource(Anchor anchor, List<T> data, List<ExportColumn<T>> columns,
+            TextExporter.Format format, boolean zipped) {
+        // The file is written straight into the download response
+        StreamResource resource;
+        if (format == null) {
+            resource = new StreamResource("report.xlsx",
+                    (out, session) -> reportService.exportToExcel(data, columns, out));
+            resource.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        } else {
+            resource = new StreamResource(format.fileName("report", zipped),
+                    (out, session) -> reportService.exportToText(data, columns, format, zipped, out));
+            resource.setContentType(format.contentType(zipped));
+        }
         anchor.setHref(resource);
     }
 }
@@ -24,6 +24,7 @@ import java.util.List;
 public class ProductForm extends FormLayout {
 
     TextField name = new TextField("Product Name");
+    TextField code = new TextField("Barcode / SKU");
     ComboBox<Category> category = new ComboBox<>("Category");
     BigDecimalField buyingPrice = new BigDecimalField("Buying Price");
     BigDecimalField unitPrice = new BigDecimalField("Selling Price");
@@ -47,6 +48,7 @@ public class ProductForm extends FormLayout {
         category.setItemLabelGenerator(Category::getName);
 
         add(name,
+                code,
                 category,
                 buyingPrice,
                 unitPrice,
@@ -25,13 +25,19 @@ public class StockView extends VerticalLayout {
 
     private final ProductService productService;
     private final com.aynlabs.lumoBills.backend.service.CategoryService categoryService;
+    private final com.aynlabs.lumoBills.backend.service.ProductImportService importService;
+    private final com.aynlabs.lumoBills.backend.security.SecurityService securityService;
 
     private ProductForm form;
 
     public StockView(ProductService productService,
-            com.aynlabs.lumoBills.backend.service.CategoryService categoryService) {
+            com.aynlabs.lumoBills.backend.service.CategoryService categoryService,
+            com.aynlabs.lumoBills.backend.service.ProductImportService importService,
+            com.aynlabs.lumoBills.backend.security.SecurityService securityService) {
         this.productService = productService;
         this.categoryService = categoryService;
+        this.importService = importService;
+        this.securityService = securityService;
         addClassName("stock-view");
         setSizeFull();
         configureGrid();
@@ -60,7 +66,14 @@ public class StockView extends VerticalLayout {
     }
 
     private void saveProduct(ProductForm.SaveEvent event) {
-        productService.save(event.getProduct());
+        try {
+            productService.save(event.getProduct());
+        } catch (IllegalArgumentException e) {
+            com.vaadin.flow.component.notification.Notification.show(e.getMessage(), 3000,
+                    com.vaadin.flow.component.notification.Notification.Position.MIDDLE)
+                    .addThemeVariants(com.vaadin.flow.component.notification.NotificationVariant.LUMO_ERROR);
+            return;
+        }
         updateList();
         closeEditor();
     }
@@ -90,7 +103,7 @@ public class StockView extends VerticalLayout {
     private void configureGrid() {
         grid.addClassNames("contact-grid");
         grid.setSizeFull();
-        grid.setColumns("name", "category", "unitPrice", "description");
+        grid.setColumns("name", "code", "category", "unitPrice", "description");
 
         grid.getColumnByKey("unitPrice").setHeader("Selling Price");
 
@@ -126,11 +139,87 @@ public class StockView extends VerticalLayout {
         Button addProductButton = new Button("Add Product");
         addProductButton.addClickListener(click -> addProduct());
 
-        HorizontalLayout toolbar = new HorizontalLayout(filterText, categoryFilter, addProductButton);
+        Button importButton = new Button("Import");
+        importButton.addClickListener(click -> openImportDialog());
+
+        HorizontalLayout toolbar = new HorizontalLayout(filterText, categoryFilter, addProductButton, importButton);
         toolbar.addClassName("toolbar");
         return toolbar;
     }
 
+    private void openImportDialog() {
+        com.vaadin.flow.component.dialog.Dialog dialog = new com.vaadin.flow.component.dialog.Dialog();
+        dialog.setHeaderTitle("Import Products");
+        dialog.setWidth("600px");
+
+        com.vaadin.flow.component.html.Span help = new com.vaadin.flow.component.html.Span(
+                "CSV or XLSX with a header row: name, code, category, buying price, selling price, "
+                        + "opening stock, reorder level, description. Opening stock is only applied to new products.");
+        com.vaadin.flow.component.progressbar.ProgressBar progressBar = new com.vaadin.flow.component.progressbar.ProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+        com.vaadin.flow.component.html.Span progressText = new com.vaadin.flow.component.html.Span();
+        Grid<com.aynlabs.lumoBills.backend.service.ProductImportService.RowError> errorGrid = new Grid<>();
+        errorGrid.addColumn(com.aynlabs.lumoBills.backend.service.ProductImportService.RowError::rowNumber)
+                .setHeader("Row").setAutoWidth(true).setFlexGrow(0);
+        errorGrid.addColumn(com.aynlabs.lumoBills.backend.service.ProductImportService.RowError::message)
+                .setHeader("Error");
+        errorGrid.setHeight("200px");
+        errorGrid.setVisible(false);
+
+        com.vaadin.flow.component.UI ui = com.vaadin.flow.component.UI.getCurrent();
+        java.util.concurrent.atomic.AtomicBoolean cancelled = new java.util.concurrent.atomic.AtomicBoolean();
+
+        // Buffered to a temporary file, so large files never sit in memory
+        com.vaadin.flow.component.upload.receivers.FileBuffer buffer = new com.vaadin.flow.component.upload.receivers.FileBuffer();
+        com.vaadin.flow.component.upload.Upload upload = new com.vaadin.flow.component.upload.Upload(buffer);
+        upload.setAcceptedFileTypes(".csv", ".xlsx");
+        upload.setMaxFileSize(importService.getMaxFileSize());
+        // Also stopped on the server, which does not trust the browser's own size check
+        upload.addProgressListener(event -> {
+            if (event.getReadBytes() > upload.getMaxFileSize()) {
+                upload.interruptUpload();
+            }
+        });
+        upload.addSucceededListener(event -> {
+            com.aynlabs.lumoBills.backend.importer.SheetReader.Format format = com.aynlabs.lumoBills.backend.importer.SheetReader.Format
+                    .forFileName(event.getFileName());
+            if (format == null) {
+                progressText.setText("Only .csv and .xlsx files can be imported.");
+                return;
+            }
+            upload.setVisible(false);
+            progressBar.setVisible(true);
+            progressText.setText("Importing " + event.getFileName() + "...");
+            importService.importProductsAsync(buffer.getFileData().getFile().toPath(), format,
+                    securityService.getAuthenticatedUser(),
+                    progress -> ui.access(() -> progressText.setText(progress.rowsRead() + " rows read, "
+                            + progress.created() + " created, " + progress.updated() + " updated, "
+                            + progress.failed() + " failed")),
+                    cancelled::get)
+                    .thenAccept(result -> ui.access(() -> {
+                        progressBar.setVisible(false);
+                        com.aynlabs.lumoBills.backend.service.ProductImportService.ImportProgress totals = result
+                                .totals();
+                        progressText.setText((result.cancelled() ? "Cancelled: " : "Done: ")
+                                + totals.rowsRead() + " rows read, " + totals.created() + " created, "
+                                + totals.updated() + " updated, " + totals.failed() + " failed");
+                        if (!result.errors().isEmpty()) {
+                            errorGrid.setItems(result.errors());
+                            errorGrid.setVisible(true);
+                        }
+                        updateList();
+                    }));
+        });
+
+        dialog.add(new VerticalLayout(help, upload, progressBar, progressText, errorGrid));
+        dialog.getFooter().add(new Button("Close", e -> {
+            cancelled.set(true);
+            dialog.close();
+        }));
+        dialog.open();
+    }
+
     private void addProduct() {
         grid.asSingleSelect().clear();
         editProduct(new Product());
@@ -0,0 +1,75 @@
+package com.aynlabs.lumoBills.backend.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.service.DailySummaryService.DayTotals;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Batching of committed events into dashboard pushes; flushes are triggered by the test. */
+class DashboardBroadcasterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    private final DashboardBroadcaster broadcaster = new DashboardBroadcaster();
+    private final List<DashboardBroadcaster.DashboardUpdate> received = new ArrayList<>();
+
+    @Test
+    void burstIsPushedOnceWithTheNewestTotalsPerDay() {
+        broadcaster.register(received::add);
+
+        broadcaster.onSalesTotalsChanged(new SalesTotalsChangedEvent(DAY, totals("10", 3)));
+        broadcaster.onSalesTotalsChanged(new SalesTotalsChangedEvent(DAY, totals("30", 5)));
+        // Commits can be observed out of order; an older version must not win
+        broadcaster.onSalesTotalsChanged(new SalesTotalsChangedEvent(DAY, totals("20", 4)));
+        broadcaster.onStockChanged(new StockChangedEvent(List.of(movement("Tea"), movement("Milk"))));
+        broadcaster.flush();
+
+        assertThat(received).singleElement().satisfies(update -> {
+            assertThat(update.totals().get(DAY).version()).isEqualTo(5);
+            assertThat(update.totals().get(DAY).paidSales()).isEqualByComparingTo("30");
+            assertThat(update.movements()).extracting(StockChangedEvent.StockMovement::productName)
+                    .containsExactly("Tea", "Milk");
+        });
+    }
+
+    @Test
+    void nothingIsPushedWithoutEvents() {
+        broadcaster.register(received::add);
+        broadcaster.onSalesTotalsChanged(new SalesTotalsChangedEvent(DAY, totals("10", 1)));
+        broadcaster.flush();
+        broadcaster.flush();
+
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    void unregisteredListenersAndFailingListenersAreSkipped() {
+        Runnable unregister = broadcaster.register(received::add);
+        broadcaster.register(update -> {
+            throw new IllegalStateException("detached UI");
+        });
+        List<DashboardBroadcaster.DashboardUpdate> other = new ArrayList<>();
+        broadcaster.register(other::add);
+        unregister.run();
+
+        broadcaster.onSalesTotalsChanged(new SalesTotalsChangedEvent(DAY, totals("10", 1)));
+        broadcaster.flush();
+
+        assertThat(received).isEmpty();
+        assertThat(other).hasSize(1);
+    }
+
+    private static DayTotals totals(String paidSales, int version) {
+        return new DayTotals(new BigDecimal(paidSales), BigDecimal.ZERO, version);
+    }
+
+    private static StockChangedEvent.StockMovement movement(String productName) {
+        return new StockChangedEvent.StockMovement(1L, productName, -1, TransactionType.SALE, LocalDateTime.now());
+    }
+}
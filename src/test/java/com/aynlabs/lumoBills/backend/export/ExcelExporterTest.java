@@ -0,0 +1,75 @@
+package com.aynlabs.lumoBills.backend.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Rows beyond the in-memory window must still reach the file, each cell with
+ * the type of its column.
+ */
+class ExcelExporterTest {
+
+    private static final int ROW_WINDOW = 10;
+    private static final int ROWS = 250;
+
+    private record Row(String name, BigDecimal amount, Long count, LocalDateTime date) {
+    }
+
+    @Test
+    void writesEveryRowWithTypedCells() throws IOException {
+        ExcelExporter exporter = new ExcelExporter();
+        ReflectionTestUtils.setField(exporter, "rowWindow", ROW_WINDOW);
+        LocalDateTime start = LocalDateTime.of(2004, 1, 1, 9, 30);
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Row("Product " + i, BigDecimal.valueOf(i * 25L, 2), i % 5 == 0 ? null : (long) i,
+                    start.plusDays(i)));
+        }
+        List<ExportColumn<Row>> columns = List.of(
+                ExportColumn.text("Name", Row::name),
+                ExportColumn.number("Amount", Row::amount),
+                ExportColumn.number("Count", Row::count),
+                ExportColumn.dateTime("Date", Row::date));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write("Report", columns, rows, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = workbook.getSheet("Report");
+            assertThat(sheet.getLastRowNum()).isEqualTo(ROWS);
+
+            XSSFRow header = sheet.getRow(0);
+            assertThat(header.getCell(0).getStringCellValue()).isEqualTo("Name");
+            assertThat(header.getCell(3).getStringCellValue()).isEqualTo("Date");
+            assertThat(header.getCell(0).getCellStyle().getFont().getBold()).isTrue();
+
+            for (int i = 0; i < ROWS; i++) {
+                XSSFRow row = sheet.getRow(i + 1);
+                assertThat(row.getCell(0).getStringCellValue()).isEqualTo("Product " + i);
+                assertThat(row.getCell(1).getCellType()).isEqualTo(CellType.NUMERIC);
+                assertThat(row.getCell(1).getNumericCellValue()).isEqualTo(i * 0.25);
+                assertThat(row.getCell(1).getCellStyle().getDataFormatString()).isEqualTo("#,##0.00");
+                if (i % 5 == 0) {
+                    assertThat(row.getCell(2)).isNull();
+                } else {
+                    assertThat(row.getCell(2).getNumericCellValue()).isEqualTo(i);
+                    assertThat(row.getCell(2).getCellStyle().getDataFormatString()).isEqualTo("#,##0");
+                }
+                assertThat(row.getCell(3).getLocalDateTimeCellValue()).isEqualTo(start.plusDays(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.aynlabs.lumoBills.backend.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Values with separators, quotes and line breaks must come out of the CSV and
+ * NDJSON exports as one field each, and amounts without exponent notation.
+ */
+class TextExporterTest {
+
+    private record Row(String name, BigDecimal amount, Long count) {
+    }
+
+    private static final List<ExportColumn<Row>> COLUMNS = List.of(
+            ExportColumn.text("Customer Name", Row::name),
+            ExportColumn.number("Total Amount", Row::amount),
+            ExportColumn.number("Item Count", Row::count));
+
+    private static final List<Row> ROWS = List.of(
+            new Row("Plain", new BigDecimal("1E+3"), 1L),
+            new Row("Smith, John", new BigDecimal("12.50"), 2L),
+            new Row("The \"Best\" Shop", BigDecimal.ZERO, null),
+            new Row("Line one\nLine two", new BigDecimal("-0.05"), 3L),
+            new Row(null, null, 4L));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TextExporter exporter = new TextExporter(objectMapper);
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws IOException {
+        String csv = new String(write(TextExporter.Format.CSV, false), StandardCharsets.UTF_8);
+
+        assertThat(csv).isEqualTo("Customer Name,Total Amount,Item Count\r\n"
+                + "Plain,1000,1\r\n"
+                + "\"Smith, John\",12.50,2\r\n"
+                + "\"The \"\"Best\"\" Shop\",0,\r\n"
+                + "\"Line one\nLine two\",-0.05,3\r\n"
+                + ",,4\r\n");
+    }
+
+    @Test
+    void csvQuotesHeadersAndCarriageReturns() throws IOException {
+        List<ExportColumn<Row>> columns = List.of(ExportColumn.text("Name, Full", Row::name));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(TextExporter.Format.CSV, columns, List.of(new Row("a\rb", null, null)).iterator(), out,
+                false);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\"Name, Full\"\r\n\"a\rb\"\r\n");
+    }
+
+    @Test
+    void ndjsonWritesOneEscapedObjectPerLine() throws IOException {
+        String ndjson = new String(write(TextExporter.Format.NDJSON, false), StandardCharsets.UTF_8);
+        String[] lines = ndjson.split("\n");
+
+        assertThat(ndjson).endsWith("\n");
+        assertThat(lines).hasSize(ROWS.size());
+        for (int i = 0; i < ROWS.size(); i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            Row row = ROWS.get(i);
+            assertThat(node.fieldNames()).toIterable().containsExactly("customerName", "totalAmount", "itemCount");
+            assertThat(node.get("customerName").isNull() ? null : node.get("customerName").asText())
+                    .isEqualTo(row.name());
+            if (row.amount() == null) {
+                assertThat(node.get("totalAmount").isNull()).isTrue();
+            } else {
+                assertThat(node.get("totalAmount").decimalValue()).isEqualByComparingTo(row.amount());
+            }
+            if (row.count() == null) {
+                assertThat(node.get("itemCount").isNull()).isTrue();
+            } else {
+                assertThat(node.get("itemCount").longValue()).isEqualTo(row.count());
+            }
+        }
+    }
+
+    @Test
+    void gzipWrapsTheSameContent() throws IOException {
+        byte[] plain = write(TextExporter.Format.CSV, false);
+        byte[] compressed = write(TextExporter.Format.CSV, true);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+        assertThat(TextExporter.Format.CSV.fileName("sales", true)).isEqualTo("sales.csv.gz");
+        assertThat(TextExporter.Format.NDJSON.contentType(false)).isEqualTo("application/x-ndjson");
+    }
+
+    private byte[] write(TextExporter.Format format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(format, COLUMNS, ROWS.iterator(), out, gzip);
+        return out.toByteArray();
+    }
+}
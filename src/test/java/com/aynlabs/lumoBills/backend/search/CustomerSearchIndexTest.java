@@ -0,0 +1,91 @@
+package com.aynlabs.lumoBills.backend.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Phone, prefix and one-edit matching of the customer index. */
+class CustomerSearchIndexTest {
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CustomerRepository repository = mock(CustomerRepository.class);
+        when(repository.findSearchFields()).thenReturn(List.of(
+                new Object[] { 1L, "John", "Smith", "john@example.com", "+91 98765-43210", "Pune" },
+                new Object[] { 2L, "Jane", "Smyth", null, "022 2345 6789", "Mumbai" },
+                new Object[] { 3L, "Jon", "Smithers", null, null, "Pune" },
+                new Object[] { 4L, "Mary", "Jones", null, null, "Delhi" }));
+        index = new CustomerSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesPhoneDigitsWhateverTheFormatting() {
+        assertThat(index.search("98765", 0, 10)).containsExactly(1L);
+        assertThat(index.search("98-76", 0, 10)).containsExactly(1L);
+        assertThat(index.search("(022) 2345", 0, 10)).containsExactly(2L);
+        assertThat(index.search("2345 6789", 0, 10)).containsExactly(2L);
+        assertThat(index.search("55555", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenTypo() {
+        assertThat(index.search("smith", 0, 10)).containsExactly(1L, 3L, 2L);
+        assertThat(index.search("smyth", 0, 10)).startsWith(2L).contains(1L, 3L);
+        assertThat(index.search("john smith", 0, 10)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void toleratesOneEditOnlyForLongerWords() {
+        assertThat(index.search("smtih", 0, 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("jonse", 0, 10)).containsExactly(4L);
+        assertThat(index.search("jo", 0, 10)).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(index.search("jn", 0, 10)).isEmpty();
+        assertThat(index.count("pune")).isEqualTo(2);
+    }
+
+    @Test
+    void withinOneEdit() {
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "smith")).isTrue();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "smyth")).isTrue();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "smth")).isTrue();
+        assertThat(CustomerSearchIndex.withinOneEdit("smth", "smith")).isTrue();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "smtih")).isTrue();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "smiths")).isTrue();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "snyth")).isFalse();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "mtih")).isFalse();
+        assertThat(CustomerSearchIndex.withinOneEdit("smith", "smithes")).isFalse();
+    }
+
+    @Test
+    void blankQueryListsEveryoneByName() {
+        assertThat(CustomerSearchIndex.isBlank(" -- ")).isTrue();
+        assertThat(index.search("--", 0, 10)).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(index.search(null, 1, 2)).containsExactly(1L, 3L);
+        assertThat(index.count("")).isEqualTo(4);
+    }
+
+    @Test
+    void followsSavesAndDeletes() {
+        Customer customer = new Customer();
+        customer.setId(3L);
+        customer.setFirstName("Jon");
+        customer.setLastName("Baker");
+        customer.setPhone("98111 22233");
+        index.put(customer);
+        index.remove(4L);
+
+        assertThat(index.search("smith", 0, 10)).containsExactly(1L, 2L);
+        assertThat(index.search("111222", 0, 10)).containsExactly(3L);
+        assertThat(index.search("jones", 0, 10)).isEmpty();
+        assertThat(index.count(null)).isEqualTo(3);
+    }
+}
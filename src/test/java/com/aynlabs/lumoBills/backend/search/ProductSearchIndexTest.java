@@ -0,0 +1,53 @@
+package com.aynlabs.lumoBills.backend.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Substring, prefix and typo matching of the product name index. */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(mock(ProductRepository.class));
+        index.put(1L, "Herbal Shampoo 200ml");
+        index.put(2L, "Ham Sandwich");
+        index.put(3L, "Hand Cream");
+        index.put(4L, "Champagne Glass");
+    }
+
+    @Test
+    void findsMidWordSubstrings() {
+        assertThat(index.search("amp", 0, 10)).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(index.search("ham", 0, 10)).startsWith(2L).contains(1L, 4L);
+        assertThat(index.search("oo", 0, 10)).contains(1L);
+    }
+
+    @Test
+    void containingFilterHasNoFuzzyHits() {
+        assertThat(index.findContaining("ham")).containsExactly(4L, 2L, 1L);
+        assertThat(index.findContaining("shampo")).containsExactly(1L);
+        assertThat(index.findContaining("shampooo")).isEmpty();
+        assertThat(index.findContaining("l sha")).containsExactly(1L);
+        assertThat(index.findContaining("")).containsExactly(4L, 2L, 3L, 1L);
+    }
+
+    @Test
+    void searchRanksContainingNamesBeforeTypos() {
+        assertThat(index.search("shampooo", 0, 10)).containsExactly(1L);
+        assertThat(index.search("hand crem", 0, 10)).startsWith(3L);
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        index.put(2L, "Club Sandwich");
+        index.remove(4L);
+
+        assertThat(index.findContaining("ham")).containsExactly(1L);
+    }
+}
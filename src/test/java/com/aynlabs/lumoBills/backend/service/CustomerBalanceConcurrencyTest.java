@@ -0,0 +1,143 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import com.aynlabs.lumoBills.backend.repository.OutboxEventRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Thousands of payments are posted to one customer at the same time, directly
+ * and through the outbox; the outstanding balance must come out exact.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerBalanceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int POSTINGS_PER_THREAD = 250;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentDirectPostingsAddUpExactly() throws Exception {
+        Long customerId = createCustomer("Direct").getId();
+
+        runConcurrently(thread -> () -> {
+            for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                customerService.postBalance(customerId, amount(thread, i));
+            }
+            return null;
+        });
+
+        assertThat(balanceOf(customerId)).isEqualByComparingTo(expectedTotal());
+    }
+
+    @Test
+    void concurrentOutboxPostingsAddUpExactly() throws Exception {
+        Customer customer = createCustomer("Outbox");
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Every thread enqueues payments and now and then dispatches, like several nodes polling
+        runConcurrently(thread -> () -> {
+            for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                BigDecimal delta = amount(thread, i);
+                tx.executeWithoutResult(status -> outboxService.enqueueBalanceChange(customer, delta));
+                if (i % 10 == 0) {
+                    outboxDispatcher.dispatch();
+                }
+            }
+            return null;
+        });
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2);
+        while (outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING) > 0
+                && System.currentTimeMillis() < deadline) {
+            outboxDispatcher.dispatch();
+        }
+
+        assertThat(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING)).isZero();
+        assertThat(outboxService.countFailed()).isZero();
+        assertThat(balanceOf(customer.getId())).isEqualByComparingTo(expectedTotal());
+    }
+
+    /** Charges and payments in cents, so rounding would show up in the total. */
+    private static BigDecimal amount(int thread, int i) {
+        BigDecimal cents = BigDecimal.valueOf(thread * 1000L + i, 2);
+        return i % 3 == 0 ? cents.negate() : cents;
+    }
+
+    private static BigDecimal expectedTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                total = total.add(amount(t, i));
+            }
+        }
+        return total;
+    }
+
+    private interface ThreadTask {
+        Callable<Void> forThread(int thread);
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Callable<Void> body = task.forThread(t);
+            futures.add(pool.submit(() -> {
+                start.await();
+                return body.call();
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+
+    private BigDecimal balanceOf(Long customerId) {
+        return customerRepository.findById(customerId).orElseThrow().getOutstandingBalance();
+    }
+
+    private Customer createCustomer(String name) {
+        Customer customer = new Customer();
+        customer.setFirstName(name);
+        customer.setLastName("Balance");
+        return customerRepository.save(customer);
+    }
+}
@@ -0,0 +1,91 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import com.aynlabs.lumoBills.backend.repository.OutboxEventRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The shared dashboard snapshot picks up every change to the pending amount
+ * once the outbox has applied it, including partial payments, which touch
+ * neither the daily summary nor stock. Dispatcher and refresh are driven by
+ * the test.
+ */
+@SpringBootTest(properties = {
+        "lumobills.outbox.poll-interval-ms=3600000",
+        "lumobills.dashboard.snapshot-refresh-ms=3600000",
+        "lumobills.dashboard.snapshot-dirty-check-ms=3600000" })
+@ActiveProfiles("test")
+class DashboardSnapshotServiceTest {
+
+    @Autowired
+    private DashboardSnapshotService snapshotService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void partialPaymentRefreshesPendingAmount() {
+        drainOutbox();
+        snapshotService.refreshIfDirty();
+        BigDecimal pendingBefore = defaultSnapshot().pendingAmount();
+
+        Invoice invoice = new Invoice();
+        invoice.setDate(LocalDateTime.now());
+        invoice.setStatus(Invoice.InvoiceStatus.PENDING);
+        invoice.setPaymentMode(Invoice.PaymentMode.CASH);
+        invoice.setSubTotal(new BigDecimal("300.00"));
+        invoice.setTotalAmount(new BigDecimal("300.00"));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> invoiceService.createInvoice(invoice, null));
+        drainOutbox();
+        snapshotService.refreshIfDirty();
+        assertThat(defaultSnapshot().pendingAmount()).isEqualByComparingTo(pendingBefore.add(new BigDecimal("300")));
+
+        tx.executeWithoutResult(status -> invoiceService.addPayment(
+                invoiceService.findById(invoice.getId()).orElseThrow(), new BigDecimal("120.00"),
+                Invoice.PaymentMode.CASH, null));
+        drainOutbox();
+        snapshotService.refreshIfDirty();
+        assertThat(defaultSnapshot().pendingAmount()).isEqualByComparingTo(pendingBefore.add(new BigDecimal("180")));
+
+        tx.executeWithoutResult(status -> invoiceService.addPayment(
+                invoiceService.findById(invoice.getId()).orElseThrow(), new BigDecimal("80.00"),
+                Invoice.PaymentMode.CASH, null));
+        drainOutbox();
+        snapshotService.refreshIfDirty();
+        assertThat(defaultSnapshot().pendingAmount()).isEqualByComparingTo(pendingBefore.add(new BigDecimal("100")));
+    }
+
+    private DashboardSnapshotService.DashboardSnapshot defaultSnapshot() {
+        return snapshotService.getSnapshot(DashboardSnapshotService.defaultStart(),
+                DashboardSnapshotService.defaultEnd());
+    }
+
+    private void drainOutbox() {
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        while (outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING) > 0
+                && System.currentTimeMillis() < deadline) {
+            outboxDispatcher.dispatch();
+        }
+    }
+}
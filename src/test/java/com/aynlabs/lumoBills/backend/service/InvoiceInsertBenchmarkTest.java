@@ -0,0 +1,141 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Insert statements and latency of invoice creation with JDBC batching
+ * ("after", the pooled sequence ids) against one statement per row
+ * ("before", as with IDENTITY ids, which cannot be batched).
+ * <p>
+ * IDENTITY cannot be switched back on in a running context, so "before" is
+ * reproduced by setting the session's JDBC batch size to 1, which is what
+ * IDENTITY ids forced. The outbox dispatcher is kept idle so the statistics
+ * only count invoice creation.
+ */
+@SpringBootTest(properties = "lumobills.outbox.poll-interval-ms=3600000")
+@ActiveProfiles("test")
+class InvoiceInsertBenchmarkTest {
+
+    private static final int LINES = 20;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void batchedInsertsUseFewerStatements() {
+        List<Product> products = createProducts();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        Result before = run("before (batch size 1)", products, 1, statistics);
+        Result after = run("after (batched)", products, null, statistics);
+
+        assertThat(after.insertsPerInvoice()).isEqualTo(before.insertsPerInvoice());
+        assertThat(after.statementsPerInvoice()).isLessThan(before.statementsPerInvoice());
+    }
+
+    private Result run(String label, List<Product> products, Integer batchSize, Statistics statistics) {
+        for (int i = 0; i < WARMUP; i++) {
+            createInvoice(products, batchSize);
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            createInvoice(products, batchSize);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result((double) statistics.getPrepareStatementCount() / ITERATIONS,
+                (double) statistics.getEntityInsertCount() / ITERATIONS, elapsed / 1_000_000.0 / ITERATIONS);
+        System.out.printf("%s: %.1f statements, %.1f entity inserts, %.2f ms per %d-line invoice%n",
+                label, result.statementsPerInvoice(), result.insertsPerInvoice(), result.millisPerInvoice(), LINES);
+        return result;
+    }
+
+    private void createInvoice(List<Product> products, Integer batchSize) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            if (batchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            }
+            Invoice invoice = new Invoice();
+            invoice.setDate(LocalDateTime.now());
+            invoice.setStatus(Invoice.InvoiceStatus.PAID);
+            invoice.setPaymentMode(Invoice.PaymentMode.CASH);
+            BigDecimal total = BigDecimal.ZERO;
+            for (Product product : products) {
+                InvoiceItem item = new InvoiceItem();
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setUnitPrice(product.getUnitPrice());
+                invoice.getItems().add(item);
+                total = total.add(item.getSubTotal());
+            }
+            invoice.setSubTotal(total);
+            invoice.setTotalAmount(total);
+            invoiceService.createInvoice(invoice, null);
+        });
+    }
+
+    private List<Product> createProducts() {
+        Category category = new Category();
+        category.setName("Benchmark");
+        categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Benchmark product " + i);
+            product.setCategory(category);
+            product.setBuyingPrice(BigDecimal.ONE);
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setQuantityInStock(1_000_000);
+            products.add(product);
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private record Result(double statementsPerInvoice, double insertsPerInvoice, double millisPerInvoice) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.InvoiceStatusTotal;
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
+import com.aynlabs.lumoBills.backend.repository.InvoiceStatusTotalRepository;
+import com.aynlabs.lumoBills.backend.repository.OutboxEventRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-status invoice totals: changes reach the totals through the outbox,
+ * missing rows are rebuilt from the invoice table, and only lasting drift is
+ * reported. The dispatcher is driven by the tests.
+ */
+@SpringBootTest(properties = "lumobills.outbox.poll-interval-ms=3600000")
+@ActiveProfiles("test")
+class InvoiceTotalsServiceTest {
+
+    @Autowired
+    private InvoiceTotalsService invoiceTotalsService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceStatusTotalRepository totalRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void checkoutQueuesTheTotalsDelta() {
+        drainOutbox();
+        long queuedBefore = countTotalsEvents();
+        long pendingCountBefore = invoiceTotalsService.getCountsByStatus().get(Invoice.InvoiceStatus.PENDING);
+        BigDecimal pendingAmountBefore = invoiceTotalsService.getPendingAmount();
+
+        Invoice invoice = new Invoice();
+        invoice.setDate(LocalDateTime.now());
+        invoice.setStatus(Invoice.InvoiceStatus.PENDING);
+        invoice.setPaymentMode(Invoice.PaymentMode.CASH);
+        invoice.setSubTotal(new BigDecimal("120.50"));
+        invoice.setTotalAmount(new BigDecimal("120.50"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> invoiceService.createInvoice(invoice, null));
+
+        assertThat(countTotalsEvents()).isEqualTo(queuedBefore + 1);
+
+        drainOutbox();
+        assertThat(invoiceTotalsService.getCountsByStatus().get(Invoice.InvoiceStatus.PENDING))
+                .isEqualTo(pendingCountBefore + 1);
+        assertThat(invoiceTotalsService.getPendingAmount())
+                .isEqualByComparingTo(pendingAmountBefore.add(new BigDecimal("120.50")));
+        assertThat(invoiceTotalsService.reconcile()).isEmpty();
+    }
+
+    @Test
+    void backfillRebuildsEachMissingStatus() {
+        drainOutbox();
+        InvoiceStatusTotal paidBefore = row(Invoice.InvoiceStatus.PAID);
+        totalRepository.delete(row(Invoice.InvoiceStatus.CANCELLED));
+        shiftPaidCount(5);
+
+        invoiceTotalsService.backfill();
+
+        InvoiceStatusTotal cancelled = row(Invoice.InvoiceStatus.CANCELLED);
+        long cancelledInvoices = invoiceRepository.findAll().stream()
+                .filter(i -> i.getStatus() == Invoice.InvoiceStatus.CANCELLED).count();
+        assertThat(cancelled.getInvoiceCount()).isEqualTo(cancelledInvoices);
+        // Existing rows are left alone, even when they are off
+        assertThat(row(Invoice.InvoiceStatus.PAID).getInvoiceCount()).isEqualTo(paidBefore.getInvoiceCount() + 5);
+        shiftPaidCount(-5);
+    }
+
+    @Test
+    void reconcileReportsOnlyDriftThatLasts() {
+        drainOutbox();
+        assertThat(invoiceTotalsService.reconcile()).isEmpty();
+
+        shiftPaidCount(3);
+        // One sighting may be a change in flight
+        assertThat(invoiceTotalsService.reconcile()).isEmpty();
+        assertThat(invoiceTotalsService.reconcile()).singleElement().asString().startsWith("PAID");
+
+        shiftPaidCount(-3);
+        assertThat(invoiceTotalsService.reconcile()).isEmpty();
+    }
+
+    private void shiftPaidCount(long delta) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> totalRepository
+                .addDelta(Invoice.InvoiceStatus.PAID, delta, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    private InvoiceStatusTotal row(Invoice.InvoiceStatus status) {
+        return totalRepository.findAll().stream().filter(t -> t.getStatus() == status).findFirst().orElseThrow();
+    }
+
+    private long countTotalsEvents() {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getEventType() == OutboxEvent.EventType.INVOICE_TOTALS).count();
+    }
+
+    private void drainOutbox() {
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        while (outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING) > 0
+                && System.currentTimeMillis() < deadline) {
+            outboxDispatcher.dispatch();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.dto.SalesReportDTO;
+import com.aynlabs.lumoBills.backend.dto.StockReportDTO;
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.entity.Purchase;
+import com.aynlabs.lumoBills.backend.entity.StockHistory;
+import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.entity.User;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import com.aynlabs.lumoBills.backend.repository.PurchaseRepository;
+import com.aynlabs.lumoBills.backend.repository.StockHistoryRepository;
+import com.aynlabs.lumoBills.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The grids, dialogs and reports read lazy associations after the service
+ * call has returned, outside any transaction (open-in-view is off). Each
+ * use case must fetch what it shows in a single statement: a missing entity
+ * graph shows up here either as a LazyInitializationException or as one
+ * extra select per row.
+ * <p>
+ * The pollers are kept idle so the statistics only count the call under test.
+ */
+@SpringBootTest(properties = {
+        "lumobills.outbox.poll-interval-ms=3600000",
+        "lumobills.pricing.poll-interval-ms=3600000",
+        "lumobills.settings.poll-interval-ms=3600000",
+        "lumobills.dashboard.snapshot-refresh-ms=3600000",
+        "lumobills.dashboard.snapshot-dirty-check-ms=3600000" })
+@ActiveProfiles("test")
+class LazyLoadingStatementCountTest {
+
+    private static final int ROWS = 5;
+    private static final LocalDateTime START = LocalDateTime.of(2001, 3, 1, 0, 0);
+    private static final LocalDateTime END = START.plusMonths(1);
+
+    /** Rows are created once for the whole class. */
+    private static final List<Long> invoiceIds = new ArrayList<>();
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private StockHistoryRepository stockHistoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void createRows() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        if (!invoiceIds.isEmpty()) {
+            return;
+        }
+
+        Category category = new Category();
+        category.setName("Lazy fetch");
+        categoryRepository.save(category);
+
+        // A product, user and customer per row, so a per-row select cannot hide in the session cache
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setName("Lazy fetch product " + i);
+            product.setCategory(category);
+            product.setBuyingPrice(BigDecimal.ONE);
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setQuantityInStock(100);
+            productRepository.save(product);
+
+            User user = new User();
+            user.setUsername("lazyfetch" + i);
+            user.setName("Lazy Fetch User " + i);
+            userRepository.save(user);
+
+            Customer customer = new Customer();
+            customer.setFirstName("Lazyfetch");
+            customer.setLastName("Customer " + i);
+            customerRepository.save(customer);
+
+            LocalDateTime date = START.plusDays(i + 1);
+
+            StockHistory history = new StockHistory();
+            history.setProduct(product);
+            history.setConductedBy(user);
+            history.setType(TransactionType.PURCHASE);
+            history.setChangeAmount(10);
+            history.setTimestamp(date);
+            stockHistoryRepository.save(history);
+
+            Purchase purchase = new Purchase();
+            purchase.setProduct(product);
+            purchase.setSellerName("Lazy fetch seller");
+            purchase.setQuantity(10);
+            purchase.setPrice(BigDecimal.ONE);
+            purchase.setTotal(BigDecimal.TEN);
+            purchase.setPurchaseDate(date);
+            purchaseRepository.save(purchase);
+
+            Invoice invoice = new Invoice();
+            invoice.setInvoiceNumber("LAZY-" + System.nanoTime() + "-" + i);
+            invoice.setCustomer(customer);
+            invoice.setCreatedBy(user);
+            invoice.setDate(date);
+            invoice.setStatus(Invoice.InvoiceStatus.PAID);
+            invoice.setPaymentMode(Invoice.PaymentMode.CASH);
+            InvoiceItem item = new InvoiceItem();
+            item.setInvoice(invoice);
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setUnitPrice(BigDecimal.TEN);
+            invoice.getItems().add(item);
+            invoice.setSubTotal(item.getSubTotal());
+            invoice.setTotalAmount(item.getSubTotal());
+            invoiceIds.add(invoiceRepository.save(invoice).getId());
+        }
+    }
+
+    @Test
+    void invoiceListPageIsOneStatement() {
+        List<Invoice> page = count(() -> invoiceService.findListPage("lazyfetch", null, START, END, null,
+                PageRequest.of(0, 50)));
+
+        assertThat(page).hasSize(ROWS);
+        assertThat(page).allSatisfy(invoice -> assertThat(invoice.getCustomer().getFullName()).contains("Lazyfetch"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invoiceDetailIsOneStatement() {
+        Invoice invoice = count(() -> invoiceService.findById(invoiceIds.get(0)).orElseThrow());
+
+        assertThat(invoice.getCustomer().getFullName()).contains("Lazyfetch");
+        assertThat(invoice.getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProduct().getName()).startsWith("Lazy fetch product"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void recentStockActivityIsOneStatement() {
+        List<StockHistory> activity = count(() -> stockService.findRecentActivity(ROWS));
+
+        assertThat(activity).isNotEmpty().allSatisfy(history -> {
+            assertThat(history.getProduct().getName()).isNotNull();
+            if (history.getConductedBy() != null) {
+                assertThat(history.getConductedBy().getName()).isNotNull();
+            }
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stockReportIsOneStatement() {
+        List<StockReportDTO> rows = count(() -> reportService.getStockHistoryData(START, END, null));
+        long allStatements = statistics.getPrepareStatementCount();
+        List<StockReportDTO> purchases = count(() -> reportService.getStockHistoryData(START, END,
+                TransactionType.PURCHASE));
+
+        assertThat(rows).hasSize(ROWS)
+                .allSatisfy(row -> assertThat(row.getConductedBy()).startsWith("Lazy Fetch User"))
+                .allSatisfy(row -> assertThat(row.getProductName()).startsWith("Lazy fetch product"));
+        assertThat(allStatements).isEqualTo(1);
+        assertThat(purchases).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void purchaseListIsOneStatement() {
+        List<Purchase> all = count(() -> purchaseService.findAll());
+        long allStatements = statistics.getPrepareStatementCount();
+        List<Purchase> between = count(() -> purchaseService.findByDateBetween(START, END));
+
+        assertThat(all).allSatisfy(purchase -> assertThat(purchase.getProduct().getName()).isNotNull());
+        assertThat(allStatements).isEqualTo(1);
+        assertThat(between).hasSize(ROWS)
+                .allSatisfy(purchase -> assertThat(purchase.getProduct().getName()).startsWith("Lazy fetch product"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void salesReportIsOneStatement() {
+        List<SalesReportDTO> rows = count(() -> reportService.getSalesData(START, END));
+
+        assertThat(rows).hasSize(ROWS)
+                .allSatisfy(row -> assertThat(row.getCustomerName()).startsWith("Lazyfetch"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Runs the call with fresh statistics. The result is read afterwards by
+     * the caller, outside the call's session, as the views do.
+     */
+    private <T> T count(Supplier<T> call) {
+        statistics.clear();
+        return call.get();
+    }
+}
@@ -0,0 +1,184 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.LedgerEntry;
+import com.aynlabs.lumoBills.backend.repository.LedgerPeriodRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Monthly closing of the ledger: closed months give the same totals as the
+ * raw entries, backdated entries reopen their month, and no entry is lost
+ * when it commits while its month is being closed. The ledger list is read a
+ * page at a time. Each test books under its own category so other data does
+ * not count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerPeriodServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int ENTRIES_PER_THREAD = 25;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerPeriodService ledgerPeriodService;
+
+    @Autowired
+    private LedgerPeriodRepository periodRepository;
+
+    @Test
+    void closedMonthsMatchRawEntries() {
+        String category = category();
+        LocalDate march = LocalDate.of(2003, 3, 1);
+        record(category, march.atTime(10, 0), "100.00");
+        record(category, march.plusDays(20).atTime(18, 30), "50.25");
+        record(category, march.plusMonths(1).atTime(9, 0), "10.00");
+
+        ledgerPeriodService.closeFinishedMonths();
+
+        assertThat(isClosed(march)).isTrue();
+        assertThat(isClosed(march.plusMonths(1))).isTrue();
+        assertThat(total(category, march.atStartOfDay(), march.plusMonths(2).atStartOfDay().minusNanos(1)))
+                .isEqualByComparingTo("160.25");
+        // A range that cuts through a closed month reads that month's raw entries
+        assertThat(total(category, march.plusDays(10).atStartOfDay(), march.plusMonths(2).atStartOfDay()))
+                .isEqualByComparingTo("60.25");
+    }
+
+    @Test
+    void backdatedEntryReopensItsMonth() {
+        String category = category();
+        LocalDate may = LocalDate.of(2003, 5, 1);
+        record(category, may.atTime(12, 0), "40.00");
+        ledgerPeriodService.closeFinishedMonths();
+        assertThat(isClosed(may)).isTrue();
+
+        record(category, may.plusDays(3).atTime(12, 0), "2.50");
+
+        assertThat(isClosed(may)).isFalse();
+        assertThat(total(category, may.atStartOfDay(), may.plusMonths(1).atStartOfDay().minusNanos(1)))
+                .isEqualByComparingTo("42.50");
+
+        ledgerPeriodService.closeFinishedMonths();
+        assertThat(isClosed(may)).isTrue();
+        assertThat(total(category, may.atStartOfDay(), may.plusMonths(1).atStartOfDay().minusNanos(1)))
+                .isEqualByComparingTo("42.50");
+    }
+
+    @Test
+    void entriesArrivingWhileTheMonthClosesAreNotLost() throws Exception {
+        String category = category();
+        LocalDate july = LocalDate.of(2003, 7, 1);
+        record(category, july.atTime(8, 0), "1.00");
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+                    record(category, july.plusDays(i % 28).atTime(12, 0), "1.00");
+                }
+                return null;
+            }));
+        }
+        Future<?> closer = pool.submit(() -> {
+            start.await();
+            while (writing.get()) {
+                ledgerPeriodService.closeFinishedMonths();
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        closer.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        ledgerPeriodService.closeFinishedMonths();
+
+        assertThat(isClosed(july)).isTrue();
+        assertThat(total(category, july.atStartOfDay(), july.plusMonths(1).atStartOfDay().minusNanos(1)))
+                .isEqualByComparingTo(BigDecimal.valueOf(1 + THREADS * ENTRIES_PER_THREAD));
+    }
+
+    @Test
+    void pagesOfAClosedMonthCoverEveryEntryOnce() {
+        String category = category();
+        LocalDate september = LocalDate.of(2003, 9, 1);
+        for (int i = 0; i < 20; i++) {
+            // Several entries share a timestamp, so the page order needs its tie breaker
+            record(category, september.plusDays(i / 4).atTime(9, 0), Integer.toString(i + 1));
+        }
+        ledgerPeriodService.closeFinishedMonths();
+        LocalDateTime start = september.atStartOfDay();
+        LocalDateTime end = september.plusMonths(1).atStartOfDay().minusNanos(1);
+
+        assertThat(ledgerService.getTotals(start, end).entryCount()).isEqualTo(20);
+
+        List<LedgerEntry> newestFirst = new ArrayList<>();
+        List<LedgerEntry> byAmount = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            newestFirst.addAll(ledgerService.getEntriesBetween(start, end, PageRequest.of(page, 7)));
+            byAmount.addAll(ledgerService.getEntriesBetween(start, end, PageRequest.of(page, 7, Sort.by("amount"))));
+        }
+        assertThat(newestFirst).extracting(LedgerEntry::getId).hasSize(20).doesNotHaveDuplicates();
+        assertThat(newestFirst).extracting(LedgerEntry::getTransactionDate)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(byAmount).extracting(entry -> entry.getAmount().intValue())
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 20).boxed().toList());
+    }
+
+    private void record(String category, LocalDateTime date, String amount) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setTransactionDate(date);
+        entry.setType(LedgerEntry.EntryType.INCOME);
+        entry.setCategory(category);
+        entry.setAmount(new BigDecimal(amount));
+        entry.setDescription("Ledger period test");
+        entry.setReferenceId(category);
+        entry.setPaymentMode(Invoice.PaymentMode.CASH);
+        ledgerService.recordEntry(entry);
+    }
+
+    private BigDecimal total(String category, LocalDateTime start, LocalDateTime end) {
+        return ledgerService.getTotals(start, end).lines().stream()
+                .filter(line -> category.equals(line.category()))
+                .map(LedgerService.TotalLine::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private boolean isClosed(LocalDate month) {
+        return periodRepository.findClosedMonths(month, month.plusMonths(1)).contains(month);
+    }
+
+    private static String category() {
+        return "Ledger test " + System.nanoTime();
+    }
+}
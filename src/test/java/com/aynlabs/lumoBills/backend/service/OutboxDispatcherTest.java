@@ -0,0 +1,134 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.entity.OutboxEvent;
+import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import com.aynlabs.lumoBills.backend.repository.OutboxEventRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Events that are backing off must not take up the dispatcher's batch, must
+ * still hold back later events of their own key, and failed events can be
+ * queued again. Batches are kept small and the dispatcher is driven by the
+ * tests.
+ */
+@SpringBootTest(properties = {
+        "lumobills.outbox.poll-interval-ms=3600000",
+        "lumobills.outbox.batch-size=5" })
+@ActiveProfiles("test")
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void drainOutbox() {
+        for (int i = 0; i < 100 && outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING) > 0; i++) {
+            outboxDispatcher.dispatch();
+        }
+        outboxEventRepository.findAll().stream()
+                .filter(e -> e.getStatus() != OutboxEvent.Status.DONE)
+                .forEach(outboxEventRepository::delete);
+    }
+
+    @Test
+    void backingOffEventsDoNotStarveNewerOnes() {
+        // A full batch worth of events that are waiting for their retry
+        for (int i = 0; i < 5; i++) {
+            Customer waiting = createCustomer("Waiting" + i);
+            enqueue(waiting, BigDecimal.ONE);
+            backOffLatest(waiting);
+        }
+        Customer fresh = createCustomer("Fresh");
+        enqueue(fresh, BigDecimal.TEN);
+
+        outboxDispatcher.dispatch();
+
+        assertThat(balanceOf(fresh)).isEqualByComparingTo("10");
+        assertThat(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING)).isEqualTo(5);
+    }
+
+    @Test
+    void laterEventsWaitForTheirKey() {
+        Customer customer = createCustomer("Ordered");
+        enqueue(customer, BigDecimal.ONE);
+        backOffLatest(customer);
+        enqueue(customer, BigDecimal.TEN);
+
+        outboxDispatcher.dispatch();
+
+        assertThat(balanceOf(customer)).isEqualByComparingTo("0");
+        assertThat(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING)).isEqualTo(2);
+    }
+
+    @Test
+    void failedEventsCanBeReplayed() {
+        Customer customer = createCustomer("Replayed");
+        enqueue(customer, new BigDecimal("7.50"));
+        OutboxEvent event = latestFor(customer);
+        event.setStatus(OutboxEvent.Status.FAILED);
+        event.setAttempts(5);
+        outboxEventRepository.save(event);
+        outboxDispatcher.dispatch();
+        assertThat(balanceOf(customer)).isEqualByComparingTo("0");
+
+        assertThat(outboxService.replayFailed()).isEqualTo(1);
+        outboxDispatcher.dispatch();
+
+        assertThat(balanceOf(customer)).isEqualByComparingTo("7.50");
+        assertThat(outboxService.countFailed()).isZero();
+    }
+
+    private void enqueue(Customer customer, BigDecimal delta) {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> outboxService.enqueueBalanceChange(customer, delta));
+    }
+
+    private void backOffLatest(Customer customer) {
+        OutboxEvent event = latestFor(customer);
+        event.setAttempts(1);
+        event.setAvailableAt(LocalDateTime.now().plusHours(1));
+        outboxEventRepository.save(event);
+    }
+
+    private OutboxEvent latestFor(Customer customer) {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getAggregateKey().equals("customer:" + customer.getId()))
+                .max(Comparator.comparing(OutboxEvent::getId))
+                .orElseThrow();
+    }
+
+    private BigDecimal balanceOf(Customer customer) {
+        return customerRepository.findById(customer.getId()).orElseThrow().getOutstandingBalance();
+    }
+
+    private Customer createCustomer(String name) {
+        Customer customer = new Customer();
+        customer.setFirstName(name);
+        customer.setLastName("Outbox");
+        return customerRepository.save(customer);
+    }
+}
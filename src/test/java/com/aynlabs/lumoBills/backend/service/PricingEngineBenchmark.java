@@ -0,0 +1,99 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.aynlabs.lumoBills.backend.entity.Discount;
+import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
+import com.aynlabs.lumoBills.backend.entity.Tax;
+import com.aynlabs.lumoBills.backend.repository.DiscountRepository;
+import com.aynlabs.lumoBills.backend.repository.TaxRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Time to quote a cart of 1 to 500 lines against a compiled rule set of two
+ * taxes and two discounts. Run from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.aynlabs.lumoBills.backend.service.PricingEngineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    @Param({ "1", "10", "100", "500" })
+    private int lines;
+
+    private PricingEngine engine;
+    private List<InvoiceItem> cart;
+    private BigDecimal subTotal;
+
+    @Setup
+    public void setUp() {
+        TaxRepository taxRepository = mock(TaxRepository.class);
+        DiscountRepository discountRepository = mock(DiscountRepository.class);
+        when(taxRepository.findByActiveTrue()).thenReturn(List.of(tax("9"), tax("9")));
+        when(discountRepository.findByActiveTrue()).thenReturn(
+                List.of(discount(Discount.DiscountType.PERCENT, "5"), discount(Discount.DiscountType.FIXED, "20")));
+        when(taxRepository.findChangeVersion()).thenReturn(List.<Object[]>of(new Object[] { 2L, 0L }));
+        when(discountRepository.findChangeVersion()).thenReturn(List.<Object[]>of(new Object[] { 2L, 0L }));
+        engine = new PricingEngine(taxRepository, discountRepository);
+        engine.refresh();
+
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = new InvoiceItem();
+            item.setQuantity(1 + i % 7);
+            item.setUnitPrice(BigDecimal.valueOf(1999 + i * 37L, 2));
+            cart.add(item);
+        }
+        subTotal = engine.quote(cart).subTotal();
+    }
+
+    @Benchmark
+    public PricingEngine.Quote quoteCart() {
+        return engine.quote(cart);
+    }
+
+    @Benchmark
+    public PricingEngine.Quote quoteSubTotal() {
+        return engine.quote(subTotal);
+    }
+
+    private static Tax tax(String percentage) {
+        Tax tax = new Tax();
+        tax.setPercentage(new BigDecimal(percentage));
+        return tax;
+    }
+
+    private static Discount discount(Discount.DiscountType type, String value) {
+        Discount discount = new Discount();
+        discount.setType(type);
+        discount.setDiscountValue(new BigDecimal(value));
+        return discount;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PricingEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
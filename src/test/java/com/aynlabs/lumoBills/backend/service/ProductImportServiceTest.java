@@ -0,0 +1,176 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.entity.StockHistory;
+import com.aynlabs.lumoBills.backend.importer.SheetReader;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import com.aynlabs.lumoBills.backend.repository.StockHistoryRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Product import in chunks of three rows: rows naming the same product merge,
+ * opening stock is booked only for products the import creates, and a chunk
+ * that fails in the database is retried row by row so only the bad row is lost.
+ * The chunk size is set on the bean rather than through a property so the test
+ * shares the application context (and its in-memory database) with the others.
+ */
+@SpringBootTest(properties = {
+        "lumobills.outbox.poll-interval-ms=3600000",
+        "lumobills.pricing.poll-interval-ms=3600000",
+        "lumobills.settings.poll-interval-ms=3600000",
+        "lumobills.dashboard.snapshot-refresh-ms=3600000",
+        "lumobills.dashboard.snapshot-dirty-check-ms=3600000" })
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    private static final String HEADER = "Name,Category,Buying Price,Selling Price,Opening Stock,Description";
+    private static final int CHUNK_SIZE = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StockHistoryRepository stockHistoryRepository;
+
+    private int defaultChunkSize;
+
+    @BeforeEach
+    void useSmallChunks() {
+        defaultChunkSize = (Integer) ReflectionTestUtils.getField(target(), "chunkSize");
+        ReflectionTestUtils.setField(target(), "chunkSize", CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void restoreChunkSize() {
+        ReflectionTestUtils.setField(target(), "chunkSize", defaultChunkSize);
+    }
+
+    @Test
+    void duplicateNamesMergeAndOpeningStockIsBookedOnce() throws IOException {
+        ProductImportService.ImportResult result = importCsv(
+                HEADER,
+                "Dup Soap,Dup Import,1,2,5,",
+                "Dup Shampoo,Dup Import,1,2,10,",
+                "dup soap,Dup Import,1.5,3,8,Later row wins",
+                // Second chunk: the soap exists by now, so its stock is left alone
+                "DUP SOAP,Dup Import,2,4,100,");
+
+        assertThat(result.cancelled()).isFalse();
+        assertThat(result.errors()).isEmpty();
+        assertThat(result.totals()).isEqualTo(new ProductImportService.ImportProgress(4, 2, 1, 0));
+
+        Product soap = single("dup soap");
+        assertThat(soap.getName()).isEqualTo("DUP SOAP");
+        assertThat(soap.getUnitPrice()).isEqualByComparingTo("4");
+        assertThat(soap.getDescription()).isEqualTo("Later row wins");
+        assertThat(soap.getQuantityInStock()).isEqualTo(8);
+        assertThat(openingStockOf(soap)).containsExactly(8);
+
+        Product shampoo = single("dup shampoo");
+        assertThat(shampoo.getQuantityInStock()).isEqualTo(10);
+        assertThat(openingStockOf(shampoo)).containsExactly(10);
+    }
+
+    @Test
+    void existingProductsKeepTheirStock() throws IOException {
+        Category category = new Category();
+        category.setName("Existing Import");
+        categoryRepository.save(category);
+        Product existing = new Product();
+        existing.setName("Existing Lamp");
+        existing.setCategory(category);
+        existing.setBuyingPrice(BigDecimal.ONE);
+        existing.setUnitPrice(BigDecimal.TEN);
+        existing.setQuantityInStock(7);
+        productRepository.save(existing);
+
+        ProductImportService.ImportResult result = importCsv(HEADER,
+                "existing lamp,existing import,3,12,50,");
+
+        assertThat(result.totals()).isEqualTo(new ProductImportService.ImportProgress(1, 0, 1, 0));
+        Product lamp = single("existing lamp");
+        assertThat(lamp.getId()).isEqualTo(existing.getId());
+        assertThat(lamp.getUnitPrice()).isEqualByComparingTo("12");
+        assertThat(lamp.getQuantityInStock()).isEqualTo(7);
+        assertThat(openingStockOf(lamp)).isEmpty();
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() throws IOException {
+        // Longer than the description column, so the database rejects the whole chunk
+        String tooLong = "x".repeat(300);
+        ProductImportService.ImportResult result = importCsv(
+                HEADER,
+                "Retry Kettle,Retry Import,1,2,4,",
+                "Retry Toaster,Retry Import,1,2,4," + tooLong,
+                "Retry Blender,Retry Import,1,2,4,",
+                "Retry Mixer,Retry Import,abc,2,4,",
+                "Retry Grill,Retry Import,1,2,4.5,");
+
+        assertThat(result.totals()).isEqualTo(new ProductImportService.ImportProgress(5, 2, 0, 3));
+        assertThat(result.errors()).extracting(ProductImportService.RowError::rowNumber).containsExactly(3, 5, 6);
+        assertThat(result.errors().get(1).message()).isEqualTo("Not a number in buying price: abc");
+        assertThat(result.errors().get(2).message()).isEqualTo("Not a whole number in opening stock: 4.5");
+
+        assertThat(single("retry kettle").getQuantityInStock()).isEqualTo(4);
+        assertThat(single("retry blender").getQuantityInStock()).isEqualTo(4);
+        assertThat(productRepository.findByLowerNameIn(List.of("retry toaster", "retry mixer", "retry grill")))
+                .isEmpty();
+    }
+
+    private ProductImportService.ImportResult importCsv(String... lines) throws IOException {
+        Path file = tempDir.resolve("products.csv");
+        Files.writeString(file, String.join("\r\n", lines) + "\r\n", StandardCharsets.UTF_8);
+        List<ProductImportService.ImportProgress> progress = new ArrayList<>();
+        ProductImportService.ImportResult result = productImportService.importProducts(file,
+                SheetReader.Format.CSV, null, progress::add, () -> false);
+        assertThat(progress).isNotEmpty().last().isEqualTo(result.totals());
+        return result;
+    }
+
+    private ProductImportService target() {
+        return AopTestUtils.getTargetObject(productImportService);
+    }
+
+    private Product single(String lowerName) {
+        List<Product> products = productRepository.findByLowerNameIn(List.of(lowerName.toLowerCase(Locale.ROOT)));
+        assertThat(products).hasSize(1);
+        return products.get(0);
+    }
+
+    private List<Integer> openingStockOf(Product product) {
+        return stockHistoryRepository.findByType(StockHistory.TransactionType.PURCHASE).stream()
+                .filter(history -> history.getProduct().getId().equals(product.getId()))
+                .map(StockHistory::getChangeAmount)
+                .toList();
+    }
+}
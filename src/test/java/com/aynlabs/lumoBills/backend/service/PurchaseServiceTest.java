@@ -0,0 +1,180 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.LedgerEntry;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.entity.Purchase;
+import com.aynlabs.lumoBills.backend.importer.SheetReader;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.LedgerEntryRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * A delivery note is recorded as a whole or not at all: a bad or unknown line
+ * records nothing, and a failure while writing rolls back the purchases, the
+ * stock and the ledger entry together.
+ */
+@SpringBootTest(properties = {
+        "lumobills.outbox.poll-interval-ms=3600000",
+        "lumobills.pricing.poll-interval-ms=3600000",
+        "lumobills.settings.poll-interval-ms=3600000",
+        "lumobills.dashboard.snapshot-refresh-ms=3600000",
+        "lumobills.dashboard.snapshot-dirty-check-ms=3600000" })
+@ActiveProfiles("test")
+class PurchaseServiceTest {
+
+    private static final String HEADER = "Code,Product Name,Qty,Price";
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private Product nails;
+    private Product screws;
+
+    @BeforeEach
+    void createProducts() {
+        Category category = new Category();
+        category.setName("Hardware");
+        categoryRepository.save(category);
+        String suffix = Long.toString(System.nanoTime());
+        nails = product(category, "Nails " + suffix, "NAIL-" + suffix);
+        screws = product(category, "Screws " + suffix, null);
+    }
+
+    @Test
+    void recordsEveryLineOfAValidNote() throws IOException {
+        String reference = reference();
+        PurchaseService.DocumentImport result = importNote(reference,
+                nails.getCode() + ",,10,0.50",
+                "," + screws.getName().toUpperCase() + ",4,1.25");
+
+        assertThat(result.errors()).isEmpty();
+        assertThat(result.purchases()).hasSize(2);
+        assertThat(stockOf(nails)).isEqualTo(110);
+        assertThat(stockOf(screws)).isEqualTo(104);
+        assertThat(purchasesFrom(reference)).hasSize(2);
+        assertThat(ledgerEntries(reference)).singleElement()
+                .satisfies(entry -> assertThat(entry.getAmount()).isEqualByComparingTo("10.00"));
+    }
+
+    @Test
+    void unknownProductRecordsNothing() throws IOException {
+        String reference = reference();
+        PurchaseService.DocumentImport result = importNote(reference,
+                nails.getCode() + ",,10,0.50",
+                ",No Such Product,1,1",
+                "," + screws.getName() + ",0,1");
+
+        assertThat(result.purchases()).isEmpty();
+        assertThat(result.errors()).extracting(ProductImportService.RowError::rowNumber).containsExactly(4, 3);
+        assertThat(result.errors().get(1).message()).isEqualTo("Unknown product No Such Product");
+        assertNothingRecorded(reference);
+    }
+
+    @Test
+    void missingColumnsRecordNothing() throws IOException {
+        Path file = tempDir.resolve("note.csv");
+        Files.writeString(file, "Code,Qty\r\n" + nails.getCode() + ",5\r\n", StandardCharsets.UTF_8);
+        String reference = reference();
+
+        PurchaseService.DocumentImport result = purchaseService.importDocument(file, SheetReader.Format.CSV,
+                "Supplier " + reference, reference);
+
+        assertThat(result.errors()).singleElement()
+                .satisfies(error -> assertThat(error.message()).startsWith("Header must have"));
+        assertNothingRecorded(reference);
+    }
+
+    @Test
+    void writeFailureRollsBackTheWholeDocument() {
+        String reference = reference();
+        // Longer than the seller name column, so the database rejects the document part way through writing it
+        String seller = "x".repeat(300);
+        PurchaseService.PurchaseDocument document = new PurchaseService.PurchaseDocument(seller, reference,
+                LocalDateTime.now(), List.of(new PurchaseService.PurchaseLine(nails, 10, new BigDecimal("0.50")),
+                        new PurchaseService.PurchaseLine(screws, 4, new BigDecimal("1.25"))));
+
+        assertThatThrownBy(() -> purchaseService.saveDocument(document)).isInstanceOf(RuntimeException.class);
+
+        assertNothingRecorded(reference);
+        assertThat(purchaseService.findAll()).noneMatch(purchase -> seller.equals(purchase.getSellerName()));
+    }
+
+    private PurchaseService.DocumentImport importNote(String reference, String... lines) throws IOException {
+        Path file = tempDir.resolve("note.csv");
+        Files.writeString(file, HEADER + "\r\n" + String.join("\r\n", lines) + "\r\n", StandardCharsets.UTF_8);
+        return purchaseService.importDocument(file, SheetReader.Format.CSV, "Supplier " + reference, reference);
+    }
+
+    private void assertNothingRecorded(String reference) {
+        assertThat(stockOf(nails)).isEqualTo(100);
+        assertThat(stockOf(screws)).isEqualTo(100);
+        assertThat(purchasesFrom(reference)).isEmpty();
+        assertThat(ledgerEntries(reference)).isEmpty();
+    }
+
+    private static String reference() {
+        return "DN-" + System.nanoTime();
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getQuantityInStock();
+    }
+
+    private List<Purchase> purchasesFrom(String reference) {
+        return purchaseService.findAll().stream()
+                .filter(purchase -> ("Supplier " + reference).equals(purchase.getSellerName()))
+                .toList();
+    }
+
+    private List<LedgerEntry> ledgerEntries(String reference) {
+        return ledgerEntryRepository.findByTransactionDateBetween(LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), Pageable.unpaged()).stream()
+                .filter(entry -> reference.equals(entry.getReferenceId()))
+                .toList();
+    }
+
+    private Product product(Category category, String name, String code) {
+        Product product = new Product();
+        product.setName(name);
+        product.setCode(code);
+        product.setCategory(category);
+        product.setBuyingPrice(BigDecimal.ONE);
+        product.setUnitPrice(BigDecimal.TEN);
+        product.setQuantityInStock(100);
+        productService.save(product);
+        return productRepository.findByLowerNameIn(List.of(name.toLowerCase())).get(0);
+    }
+}
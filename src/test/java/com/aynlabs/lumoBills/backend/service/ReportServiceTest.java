@@ -0,0 +1,143 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.Customer;
+import com.aynlabs.lumoBills.backend.entity.Invoice;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.entity.StockHistory;
+import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.export.ReportColumns;
+import com.aynlabs.lumoBills.backend.export.TextExporter;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.CustomerRepository;
+import com.aynlabs.lumoBills.backend.repository.InvoiceRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import com.aynlabs.lumoBills.backend.repository.StockHistoryRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * A cancelled invoice PDF export must fail instead of producing a valid but
+ * short archive, and the streamed CSV exports must hold the same rows as the
+ * on-screen reports they are exported from.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2005, 6, 1, 0, 0);
+    private static final LocalDateTime END = START.plusMonths(1);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private StockHistoryRepository stockHistoryRepository;
+
+    @Test
+    void cancelledPdfExportIsAborted() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> reportService.exportInvoicePdfs(null, null, null, out, (done, total) -> {
+        }, () -> true))
+                .isInstanceOf(CancellationException.class)
+                .hasMessageStartingWith("Invoice export cancelled after 0 of");
+        // No end of central directory record, so no tool mistakes it for a complete ZIP
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void streamedExportsMatchTheReports() throws IOException {
+        createRows();
+
+        assertThat(lines(out -> reportService.exportSales(START, END, TextExporter.Format.CSV, false, out)))
+                .hasSize(3)
+                .containsExactlyInAnyOrderElementsOf(lines(out -> reportService.exportToText(
+                        reportService.getSalesData(START, END), ReportColumns.SALES, TextExporter.Format.CSV,
+                        false, out)));
+        assertThat(lines(out -> reportService.exportStockHistory(START, END, null, TextExporter.Format.CSV,
+                false, out)))
+                .hasSize(4)
+                .containsExactlyInAnyOrderElementsOf(lines(out -> reportService.exportToText(
+                        reportService.getStockHistoryData(START, END, null), ReportColumns.STOCK_HISTORY,
+                        TextExporter.Format.CSV, false, out)));
+        assertThat(lines(out -> reportService.exportStockHistory(START, END, TransactionType.PURCHASE,
+                TextExporter.Format.CSV, false, out)))
+                .hasSize(3)
+                .containsExactlyInAnyOrderElementsOf(lines(out -> reportService.exportToText(
+                        reportService.getStockHistoryData(START, END, TransactionType.PURCHASE),
+                        ReportColumns.STOCK_REFILL, TextExporter.Format.CSV, false, out)));
+    }
+
+    private interface Export {
+        void writeTo(ByteArrayOutputStream out) throws IOException;
+    }
+
+    private static List<String> lines(Export export) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        return List.of(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+    }
+
+    private void createRows() {
+        Category category = new Category();
+        category.setName("Export");
+        categoryRepository.save(category);
+        Product product = new Product();
+        product.setName("Export, \"quoted\" product");
+        product.setCategory(category);
+        product.setBuyingPrice(BigDecimal.ONE);
+        product.setUnitPrice(BigDecimal.TEN);
+        productRepository.save(product);
+        Customer customer = new Customer();
+        customer.setFirstName("Export");
+        customer.setLastName("Customer");
+        customerRepository.save(customer);
+
+        for (int i = 0; i < 3; i++) {
+            StockHistory history = new StockHistory();
+            history.setProduct(product);
+            history.setType(i < 2 ? TransactionType.PURCHASE : TransactionType.SALE);
+            history.setChangeAmount(i < 2 ? 10 : -1);
+            history.setPurchasePrice(new BigDecimal("1.50"));
+            history.setTimestamp(START.plusDays(i + 1));
+            history.setNotes("Export note " + i);
+            stockHistoryRepository.save(history);
+        }
+        for (int i = 0; i < 2; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setInvoiceNumber("EXPORT-" + System.nanoTime() + "-" + i);
+            invoice.setCustomer(i == 0 ? customer : null);
+            invoice.setDate(START.plusDays(i + 1));
+            invoice.setStatus(Invoice.InvoiceStatus.PAID);
+            invoice.setPaymentMode(Invoice.PaymentMode.CASH);
+            invoice.setSubTotal(new BigDecimal("20.00"));
+            invoice.setTotalAmount(new BigDecimal("20.00"));
+            invoiceRepository.save(invoice);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.Category;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import com.aynlabs.lumoBills.backend.entity.StockHistory.TransactionType;
+import com.aynlabs.lumoBills.backend.repository.CategoryRepository;
+import com.aynlabs.lumoBills.backend.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Many threads decrement the same product at once through the guarded stock
+ * update; the stock must never go below zero and every successful decrement
+ * must be accounted for.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int QUANTITY = 3;
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        Long productId = createProduct(INITIAL_STOCK).getId();
+
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (stockService.tryAdjustStock(productId, -QUANTITY, null, TransactionType.SALE, null,
+                            "concurrency test")) {
+                        successes.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        int finalStock = productRepository.findById(productId).orElseThrow().getQuantityInStock();
+        assertThat(finalStock).isGreaterThanOrEqualTo(0);
+        assertThat(successes.get() * QUANTITY).isEqualTo(INITIAL_STOCK - finalStock);
+        // Far more was requested than was in stock, so it has to be drained to below one sale
+        assertThat(finalStock).isLessThan(QUANTITY);
+    }
+
+    private Product createProduct(int stock) {
+        Category category = new Category();
+        category.setName("Concurrency");
+        categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Contended product");
+        product.setCategory(category);
+        product.setBuyingPrice(BigDecimal.ONE);
+        product.setUnitPrice(BigDecimal.TEN);
+        product.setQuantityInStock(stock);
+        return productRepository.save(product);
+    }
+}
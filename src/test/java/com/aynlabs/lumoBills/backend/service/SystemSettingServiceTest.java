@@ -0,0 +1,121 @@
+package com.aynlabs.lumoBills.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.SystemSetting;
+import com.aynlabs.lumoBills.backend.repository.SystemSettingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Settings are served from memory: local writes show up once committed, and
+ * rows changed behind the service's back (by another node) show up after the
+ * next poll. The pollers are kept idle so each test decides when the poll runs.
+ */
+@SpringBootTest(properties = {
+        "lumobills.outbox.poll-interval-ms=3600000",
+        "lumobills.pricing.poll-interval-ms=3600000",
+        "lumobills.settings.poll-interval-ms=3600000",
+        "lumobills.dashboard.snapshot-refresh-ms=3600000",
+        "lumobills.dashboard.snapshot-dirty-check-ms=3600000" })
+@ActiveProfiles("test")
+class SystemSettingServiceTest {
+
+    @Autowired
+    private SystemSettingService systemSettingService;
+
+    @Autowired
+    private SystemSettingRepository systemSettingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void localWriteIsVisibleOnlyAfterCommit() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            systemSettingService.setValue("test.local.rollback", "lost");
+            status.setRollbackOnly();
+        });
+        assertThat(systemSettingService.getValue("test.local.rollback", "default")).isEqualTo("default");
+
+        tx.executeWithoutResult(status -> {
+            systemSettingService.setValue("test.local.commit", "kept");
+            assertThat(systemSettingService.getValue("test.local.commit", "default")).isEqualTo("default");
+        });
+        assertThat(systemSettingService.getValue("test.local.commit", "default")).isEqualTo("kept");
+
+        systemSettingService.setValue("test.local.commit", null);
+        assertThat(systemSettingService.getValue("test.local.commit", "default")).isEqualTo("default");
+    }
+
+    @Test
+    void changesFromAnotherNodeAreLoadedOnTheNextPoll() {
+        systemSettingService.setValue("test.remote", "before");
+
+        SystemSetting setting = systemSettingRepository.findBySettingKey("test.remote").orElseThrow();
+        setting.setSettingValue("after");
+        systemSettingRepository.save(setting);
+        systemSettingRepository.save(new SystemSetting("test.remote.added", "new"));
+
+        assertThat(systemSettingService.getValue("test.remote", null)).isEqualTo("before");
+        assertThat(systemSettingService.getValue("test.remote.added", null)).isNull();
+
+        systemSettingService.reloadIfChanged();
+
+        assertThat(systemSettingService.getValue("test.remote", null)).isEqualTo("after");
+        assertThat(systemSettingService.getValue("test.remote.added", null)).isEqualTo("new");
+    }
+
+    @Test
+    void deletedRowIsDroppedOnTheNextPoll() {
+        systemSettingService.setValue("test.deleted", "present");
+
+        systemSettingRepository.delete(systemSettingRepository.findBySettingKey("test.deleted").orElseThrow());
+        systemSettingService.reloadIfChanged();
+
+        assertThat(systemSettingService.getValue("test.deleted", "gone")).isEqualTo("gone");
+    }
+
+    @Test
+    void deleteAndInsertBetweenPollsIsNoticed() {
+        systemSettingService.setValue("test.swap.old", "old");
+        systemSettingService.reloadIfChanged();
+
+        // Same row count and version sum as before
+        systemSettingRepository.delete(systemSettingRepository.findBySettingKey("test.swap.old").orElseThrow());
+        systemSettingRepository.save(new SystemSetting("test.swap.new", "new"));
+        systemSettingService.reloadIfChanged();
+
+        assertThat(systemSettingService.getValue("test.swap.old", null)).isNull();
+        assertThat(systemSettingService.getValue("test.swap.new", null)).isEqualTo("new");
+    }
+
+    @Test
+    void unchangedTableCostsOneQueryPerPoll() {
+        systemSettingService.setValue("test.unchanged", "value");
+        systemSettingService.reloadIfChanged();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        systemSettingService.reloadIfChanged();
+        for (int i = 0; i < 100; i++) {
+            systemSettingService.getValue("test.unchanged", null);
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(systemSettingService.getValue("test.unchanged", null)).isEqualTo("value");
+    }
+}
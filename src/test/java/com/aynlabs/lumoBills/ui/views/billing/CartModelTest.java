@@ -0,0 +1,79 @@
+package com.aynlabs.lumoBills.ui.views.billing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aynlabs.lumoBills.backend.entity.InvoiceItem;
+import com.aynlabs.lumoBills.backend.entity.Product;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** The running subtotal must always equal the sum of the lines. */
+class CartModelTest {
+
+    @Test
+    void keepsLinesInInsertionOrder() {
+        CartModel cart = new CartModel();
+        Product soap = product(1L, "2.50");
+        Product milk = product(2L, "1.25");
+
+        cart.add(milk, 2);
+        cart.add(soap, 1);
+
+        assertThat(cart.getItems()).extracting(item -> item.getProduct().getId()).containsExactly(2L, 1L);
+        assertThat(cart.quantityOf(milk)).isEqualTo(2);
+        assertThat(cart.quantityOf(product(3L, "1"))).isZero();
+        assertThat(cart.getSubTotal()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void removingAnItemTwiceSubtractsOnce() {
+        CartModel cart = new CartModel();
+        InvoiceItem item = cart.add(product(1L, "4.00"), 3);
+        cart.add(product(2L, "1.00"), 1);
+
+        cart.remove(item);
+        cart.remove(item);
+
+        assertThat(cart.getSubTotal()).isEqualByComparingTo("1.00");
+        cart.clear();
+        assertThat(cart.isEmpty()).isTrue();
+        assertThat(cart.getSubTotal()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void runningSubtotalMatchesRecomputedSum() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            products.add(product(id, BigDecimal.valueOf(random.nextInt(100_000), 2).toPlainString()));
+        }
+        CartModel cart = new CartModel();
+
+        for (int step = 0; step < 5_000; step++) {
+            Product product = products.get(random.nextInt(products.size()));
+            InvoiceItem item = cart.find(product);
+            if (item == null) {
+                cart.add(product, 1 + random.nextInt(5));
+            } else if (random.nextInt(4) == 0) {
+                cart.remove(item);
+            } else {
+                cart.setQuantity(item, 1 + random.nextInt(20));
+            }
+
+            BigDecimal expected = cart.getItems().stream().map(InvoiceItem::getSubTotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(cart.getSubTotal()).isEqualByComparingTo(expected);
+        }
+    }
+
+    private static Product product(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setUnitPrice(new BigDecimal(price));
+        return product;
+    }
+}